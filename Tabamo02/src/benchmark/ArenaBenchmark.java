@@ -0,0 +1,112 @@
+package benchmark;
+
+import musiclibrary.CompactLibrary;
+import musiclibrary.IntList;
+
+import java.util.Random;
+
+/**
+ * A program that measures the heap used per song by a {@code CompactLibrary} and its artist lookups.
+ * <p>
+ * Usage: {@code java benchmark.ArenaBenchmark [songs]}, where songs defaults to 1,000,000.
+ */
+public class ArenaBenchmark {
+    /**
+     * Measures the heap used per song by a {@code String[][]} library and by a {@code CompactLibrary}, and the
+     * latency of finding the songs of an artist in each. The compact library is checked against the library,
+     * row by row and for every song an artist lookup finds.
+     *
+     * @param songs the number of songs in the library
+     */
+    public static void run(int songs) {
+        ArenaBenchmark.checkCases();
+
+        long before = BenchmarkFixture.usedHeap();
+        String[][] library = BenchmarkFixture.buildLibrary(songs);
+        long libraryBytes = BenchmarkFixture.usedHeap() - before;
+
+        before = BenchmarkFixture.usedHeap();
+        CompactLibrary compact = CompactLibrary.of(library);
+        long compactBytes = BenchmarkFixture.usedHeap() - before;
+        System.out.printf("%-28s %,14.1f bytes/song\n", "heap (String[][])", libraryBytes / (double) songs);
+        System.out.printf("%-28s %,14.1f bytes/song\n", "heap (CompactLibrary)", compactBytes / (double) songs);
+        System.out.printf("%-28s %,14.1f bytes/song\n", "bytes used (CompactLibrary)", compact.getBytesUsed() / (double) songs);
+
+        for (int row = 0; row < songs; row++) {
+            if (!compact.getSongName(row).equals(library[row][0]) || !compact.getArtist(row).equals(library[row][1])) {
+                throw new IllegalStateException("Row " + row + " of the compact library differs from the library");
+            }
+        }
+
+        // Find the songs of random artists, typed in upper case
+        Random random = new Random(39);
+        int queries = 100;
+        long scanNanos = 0;
+        long compactNanos = 0;
+        for (int i = 0; i < queries; i++) {
+            String artist = ("Artist " + random.nextInt(BenchmarkFixture.ARTISTS)).toUpperCase();
+            long start = System.nanoTime();
+            IntList expected = new IntList();
+            for (int row = 0; row < songs; row++) {
+                if (library[row][1].equalsIgnoreCase(artist)) {
+                    expected.add(row);
+                }
+            }
+            scanNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            IntList actual = compact.rowsOf(artist);
+            compactNanos += System.nanoTime() - start;
+            if (!ArenaBenchmark.sameRows(expected, actual)) {
+                throw new IllegalStateException("The compact library found different songs for " + artist);
+            }
+        }
+        BenchmarkFixture.reportLatency("artist scan (String[][])", queries, scanNanos);
+        BenchmarkFixture.reportLatency("artist scan (CompactLibrary)", queries, compactNanos);
+    }
+
+    // Checks that the artists that only differ in case, including non-ASCII artists, are found together
+    private static void checkCases() {
+        String[][] library = {
+                {"Hello", "Adele"}, {"Halo", "Beyonc\u00e9"}, {"Skyfall", "ADELE"},
+                {"Crazy in Love", "BEYONC\u00c9"}, {"Someone Like You", "Adele"}, {"Easy on Me", "adele"}
+        };
+        CompactLibrary compact = CompactLibrary.of(library);
+        for (String artist : new String[]{"aDeLe", "beyonc\u00e9", "Nobody"}) {
+            IntList expected = new IntList();
+            for (int row = 0; row < library.length; row++) {
+                if (library[row][1].equalsIgnoreCase(artist)) {
+                    expected.add(row);
+                }
+            }
+            if (!ArenaBenchmark.sameRows(expected, compact.rowsOf(artist))) {
+                throw new IllegalStateException("The compact library found different songs for " + artist);
+            }
+        }
+        if (compact.getArtistCount() != 5 || !compact.getArtist(5).equals("adele")) {
+            throw new IllegalStateException("The compact library did not keep each spelling of the artists");
+        }
+    }
+
+    // Checks that two lists of rows are the same
+    private static boolean sameRows(IntList expected, IntList actual) {
+        if (expected.size() != actual.size()) {
+            return false;
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            if (expected.get(i) != actual.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The main method
+     *
+     * @param args the array of command line arguments
+     */
+    public static void main(String[] args) {
+        ArenaBenchmark.run(BenchmarkFixture.songs(args));
+    }
+}
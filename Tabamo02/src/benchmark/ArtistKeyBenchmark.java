@@ -0,0 +1,100 @@
+package benchmark;
+
+import musiclibrary.ArtistKey;
+import musiclibrary.SongIndex;
+
+import java.util.Random;
+
+/**
+ * A program that measures the artist filters and duplicate checks with precomputed artist keys.
+ * <p>
+ * Usage: {@code java benchmark.ArtistKeyBenchmark [songs]}, where songs defaults to 1,000,000.
+ */
+public class ArtistKeyBenchmark {
+    /**
+     * Measures artist filters and duplicate checks that case-fold the artist on every comparison against ones that
+     * use artist keys precomputed once per song. Both ways are checked to find the same songs.
+     *
+     * @param songs the number of songs in the library
+     */
+    public static void run(int songs) {
+        String[][] library = BenchmarkFixture.buildLibrary(songs);
+        int filters = 20;
+        Random random = new Random(44);
+        String[] artists = new String[filters];
+        for (int i = 0; i < filters; i++) {
+            artists[i] = ("Artist " + random.nextInt(BenchmarkFixture.ARTISTS)).toUpperCase();
+        }
+
+        for (int run = 0; run < 2; run++) {
+            // Artist filter: equalsIgnoreCase() on every row, then precomputed keys
+            int foldedMatches = 0;
+            long start = System.nanoTime();
+            for (String artist : artists) {
+                for (String[] row : library) {
+                    if (row[1].equalsIgnoreCase(artist)) {
+                        foldedMatches++;
+                    }
+                }
+            }
+            long foldedNanos = System.nanoTime() - start;
+
+            ArtistKey[] keys = new ArtistKey[songs];
+            for (int row = 0; row < songs; row++) {
+                keys[row] = ArtistKey.of(library[row][1]);
+            }
+            int keyMatches = 0;
+            start = System.nanoTime();
+            for (String artist : artists) {
+                ArtistKey key = ArtistKey.of(artist);
+                for (ArtistKey rowKey : keys) {
+                    if (rowKey.equals(key)) {
+                        keyMatches++;
+                    }
+                }
+            }
+            long keyNanos = System.nanoTime() - start;
+
+            // Duplicate check: folding the artist for each check, then using the precomputed key of the song
+            SongIndex index = new SongIndex();
+            index.rebuild(library);
+            int foldedDuplicates = 0;
+            start = System.nanoTime();
+            for (String[] row : library) {
+                if (index.contains(SongIndex.key(row[0], ArtistKey.of(row[1])))) {
+                    foldedDuplicates++;
+                }
+            }
+            long beforeNanos = System.nanoTime() - start;
+
+            int keyDuplicates = 0;
+            start = System.nanoTime();
+            for (int row = 0; row < songs; row++) {
+                if (index.contains(SongIndex.key(library[row][0], keys[row]))) {
+                    keyDuplicates++;
+                }
+            }
+            long afterNanos = System.nanoTime() - start;
+
+            if (foldedMatches != keyMatches || foldedDuplicates != songs || keyDuplicates != songs) {
+                throw new IllegalStateException("The artist keys found different songs");
+            }
+            // Only report the second run, after the JIT has compiled both ways
+            if (run == 1) {
+                BenchmarkFixture.report("artist filter (fold)", songs * filters, foldedNanos);
+                BenchmarkFixture.report("artist filter (keys)", songs * filters, keyNanos);
+                BenchmarkFixture.report("duplicate check (fold)", songs, beforeNanos);
+                BenchmarkFixture.report("duplicate check (keys)", songs, afterNanos);
+            }
+        }
+    }
+
+    /**
+     * The main method
+     *
+     * @param args the array of command line arguments
+     */
+    public static void main(String[] args) {
+        ArtistKeyBenchmark.run(BenchmarkFixture.songs(args));
+    }
+}
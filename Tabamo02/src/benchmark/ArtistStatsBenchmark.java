@@ -0,0 +1,57 @@
+package benchmark;
+
+import musiclibrary.ArtistKey;
+import musiclibrary.ArtistStats;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A program that measures the top artists report from the maintained artist counts.
+ * <p>
+ * Usage: {@code java benchmark.ArtistStatsBenchmark [songs]}, where songs defaults to 1,000,000.
+ */
+public class ArtistStatsBenchmark {
+    /**
+     * Measures a top 10 artists report from the maintained counts against counting every song for each report.
+     * Both reports are checked to find the same number of songs for the top artist.
+     *
+     * @param songs the number of songs in the library
+     */
+    public static void run(int songs) {
+        String[][] library = BenchmarkFixture.buildLibrary(songs);
+        ArtistStats stats = new ArtistStats();
+        stats.rebuild(library);
+
+        int reports = 100;
+        long start = System.nanoTime();
+        int scanTop = 0;
+        for (int i = 0; i < reports; i++) {
+            HashMap<String, Integer> counts = new HashMap<>();
+            for (String[] row : library) {
+                counts.merge(row[1].toLowerCase(), 1, Integer::sum);
+            }
+            scanTop = counts.values().stream().max(Integer::compare).orElse(0);
+        }
+        BenchmarkFixture.reportLatency("top 10 artists (scan)", reports, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        List<ArtistKey> top = List.of();
+        for (int i = 0; i < reports; i++) {
+            top = stats.topArtists(10);
+        }
+        BenchmarkFixture.reportLatency("top 10 artists (buckets)", reports, System.nanoTime() - start);
+        if (top.isEmpty() || stats.countOf(top.get(0)) != scanTop) {
+            throw new IllegalStateException("The maintained counts differ from the scanned counts");
+        }
+    }
+
+    /**
+     * The main method
+     *
+     * @param args the array of command line arguments
+     */
+    public static void main(String[] args) {
+        ArtistStatsBenchmark.run(BenchmarkFixture.songs(args));
+    }
+}
@@ -0,0 +1,76 @@
+package benchmark;
+
+import musiclibrary.MusicLibrary;
+import musiclibrary.SongEdits;
+
+/**
+ * A program that measures the batch updates of many songs that are applied together or not at all.
+ * <p>
+ * Usage: {@code java benchmark.BatchUpdateBenchmark [songs]}, where songs defaults to 1,000,000.
+ */
+public class BatchUpdateBenchmark {
+    /**
+     * Measures renaming an artist across all of their songs with one batch of edits, and checks that a batch
+     * with a duplicate leaves the library untouched, including a duplicate of a song saved in two rows.
+     *
+     * @param songs the number of songs in the library
+     */
+    public static void run(int songs) {
+        String[][] library = BenchmarkFixture.buildLibrary(songs);
+        long start = System.nanoTime();
+        MusicLibrary.applyEdits(library, new SongEdits()); // Builds the indexes of the library
+        BenchmarkFixture.report("index build", songs, System.nanoTime() - start);
+
+        // Rename one artist, whose songs are every BenchmarkFixture.ARTISTS-th row
+        SongEdits rename = new SongEdits();
+        for (int row = 7; row < songs; row += BenchmarkFixture.ARTISTS) {
+            rename.edit(row, null, "Renamed Artist");
+        }
+        start = System.nanoTime();
+        if (MusicLibrary.applyEdits(library, rename) != -1) {
+            throw new IllegalStateException("The rename was rejected");
+        }
+        BenchmarkFixture.report("batch rename artist", rename.size(), System.nanoTime() - start);
+
+        // Retitle the renamed songs so that the last one duplicates another song, which must reject the whole batch
+        SongEdits conflicting = new SongEdits();
+        int[] rows = rename.getRows();
+        for (int row : rows) {
+            conflicting.retitle(row, "Retitled " + row);
+        }
+        conflicting.edit(rows[rows.length - 1], library[0][0], library[0][1]);
+        start = System.nanoTime();
+        if (MusicLibrary.applyEdits(library, conflicting) == -1) {
+            throw new IllegalStateException("The conflicting batch was applied");
+        }
+        BenchmarkFixture.report("batch rejected", conflicting.size(), System.nanoTime() - start);
+        for (int row : rows) {
+            if (!library[row][0].equals("Song Number " + row) || !library[row][1].equals("Renamed Artist")) {
+                throw new IllegalStateException("The rejected batch changed row " + row);
+            }
+        }
+
+        // Rows 0 and 2 hold the same song, so moving row 0 away from it and row 1 onto it must be rejected
+        String[][] duplicates = {{"Hello", "Adele"}, {"World", "Adele"}, {"Hello", "ADELE"}};
+        SongEdits ontoDuplicate = new SongEdits();
+        ontoDuplicate.retitle(0, "Goodbye");
+        ontoDuplicate.retitle(1, "Hello");
+        if (MusicLibrary.applyEdits(duplicates, ontoDuplicate) != 1 || !duplicates[1][0].equals("World")) {
+            throw new IllegalStateException("The batch onto a song saved twice was applied");
+        }
+        SongEdits awayFromDuplicate = new SongEdits();
+        awayFromDuplicate.retitle(0, "Goodbye");
+        if (MusicLibrary.applyEdits(duplicates, awayFromDuplicate) != -1 || !duplicates[0][0].equals("Goodbye")) {
+            throw new IllegalStateException("The batch away from a song saved twice was rejected");
+        }
+    }
+
+    /**
+     * The main method
+     *
+     * @param args the array of command line arguments
+     */
+    public static void main(String[] args) {
+        BatchUpdateBenchmark.run(BenchmarkFixture.songs(args));
+    }
+}
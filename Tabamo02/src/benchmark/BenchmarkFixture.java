@@ -0,0 +1,143 @@
+package benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * The libraries, timers, and reports shared by the benchmark programs.
+ */
+final class BenchmarkFixture {
+    // Constants
+    static final int DEFAULT_SONGS = 1_000_000;
+    static final int ARTISTS = 1_000;
+    static final int QUERIES = 10_000;
+    static final int SEARCH_LIMIT = 50;
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    private BenchmarkFixture() {
+    }
+
+    /**
+     * Reads the number of songs from the first command line argument.
+     *
+     * @param args the array of command line arguments
+     * @return the number of songs, or 1,000,000 if there is no argument
+     */
+    static int songs(String[] args) {
+        return (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_SONGS;
+    }
+
+    /**
+     * Builds a library with generated song names and artists, where the artist of row i is {@code Artist i % 1000}.
+     *
+     * @param songs the number of songs in the library
+     * @return the library
+     */
+    static String[][] buildLibrary(int songs) {
+        String[][] library = new String[songs][2];
+        for (int i = 0; i < songs; i++) {
+            library[i][0] = "Song Number " + i;
+            library[i][1] = "Artist " + (i % ARTISTS);
+        }
+        return library;
+    }
+
+    /**
+     * Captures everything a view prints to System.out.
+     *
+     * @param view the view to run
+     * @return the bytes printed by the view
+     */
+    static byte[] capture(Runnable view) {
+        PrintStream stdout = System.out;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+        try {
+            view.run();
+        } finally {
+            System.out.flush();
+            System.setOut(stdout);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Runs a view against a null stream, after warming it up, and returns the best time of the measured runs.
+     *
+     * @param view the view to run
+     * @return the best time in nanoseconds
+     */
+    static long time(Runnable view) {
+        PrintStream stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream(), false, StandardCharsets.UTF_8));
+        long best = Long.MAX_VALUE;
+        try {
+            for (int i = 0; i < WARMUP_RUNS + MEASURED_RUNS; i++) {
+                long start = System.nanoTime();
+                view.run();
+                long elapsed = System.nanoTime() - start;
+                if (i >= WARMUP_RUNS) {
+                    best = Math.min(best, elapsed);
+                }
+            }
+        } finally {
+            System.setOut(stdout);
+        }
+        return best;
+    }
+
+    /**
+     * @return the heap in use after collecting the garbage
+     */
+    static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Prints the average latency of a query benchmark.
+     *
+     * @param name    the name of the benchmark
+     * @param queries the number of queries that were run
+     * @param nanos   the time all of the queries took
+     */
+    static void reportLatency(String name, int queries, long nanos) {
+        System.out.printf("%-28s %,14.2f us/query\n", name, nanos / 1e3 / queries);
+    }
+
+    /**
+     * Prints the throughput of a benchmark.
+     *
+     * @param name  the name of the benchmark
+     * @param rows  the number of rows that were processed
+     * @param nanos the time all of the rows took
+     */
+    static void report(String name, int rows, long nanos) {
+        System.out.printf("%-28s %,14.0f rows/s  (%,d ms)\n", name, rows / (nanos / 1e9), nanos / 1_000_000);
+    }
+
+    /**
+     * Deletes a directory and everything in it.
+     *
+     * @param directory the directory to delete
+     * @throws IOException if a file cannot be deleted
+     */
+    static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package benchmark;
+
+import musiclibrary.SongCatalog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A program that measures the write, open, and read times and the size of a song catalog.
+ * <p>
+ * Usage: {@code java benchmark.CatalogBenchmark [songs]}, where songs defaults to 1,000,000.
+ */
+public class CatalogBenchmark {
+    /**
+     * Measures how long it takes to open a song catalog and read songs from it, and how large the catalog is.
+     * Every song read from the catalog is checked against the library that was written.
+     *
+     * @param songs the number of songs in the library
+     * @throws IOException if the catalog cannot be written or read
+     */
+    public static void run(int songs) throws IOException {
+        String[][] library = BenchmarkFixture.buildLibrary(songs);
+        Path path = Files.createTempFile("musiclibrary", ".catalog");
+        try {
+            long start = System.nanoTime();
+            SongCatalog.write(path, library);
+            BenchmarkFixture.report("catalog write", songs, System.nanoTime() - start);
+            System.out.printf("%-28s %,14d bytes (%.1f per song)\n", "catalog size", Files.size(path), Files.size(path) / (double) songs);
+
+            start = System.nanoTime();
+            SongCatalog catalog = SongCatalog.open(path);
+            System.out.printf("%-28s %,14d us\n", "catalog open", (System.nanoTime() - start) / 1_000);
+
+            start = System.nanoTime();
+            for (int i = 0; i < catalog.size(); i++) {
+                if (!catalog.getSongName(i).equals(library[i][0]) || !catalog.getArtist(i).equals(library[i][1])) {
+                    throw new IllegalStateException("Row " + i + " of the catalog differs from the library");
+                }
+            }
+            BenchmarkFixture.report("catalog read", songs, System.nanoTime() - start);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * The main method
+     *
+     * @param args the array of command line arguments
+     * @throws IOException  if the benchmark fails
+     */
+    public static void main(String[] args) throws IOException  {
+        CatalogBenchmark.run(BenchmarkFixture.songs(args));
+    }
+}
@@ -0,0 +1,129 @@
+package benchmark;
+
+import musiclibrary.SongStore;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A program that measures the concurrent reads and writes of a {@code SongStore}.
+ * <p>
+ * Usage: {@code java benchmark.ConcurrencyBenchmark [songs]}, where songs defaults to 1,000,000.
+ */
+public class ConcurrencyBenchmark {
+    // Constants
+    private static final int READER_THREADS = 8;
+    private static final long STRESS_MILLIS = 3_000;
+
+    /**
+     * Runs many reader threads against a writer that keeps adding and updating songs in a {@code SongStore}.
+     * <p>
+     * Every song is written as "Song Number n" by the artist {@link #pairedArtist(int)}, where n is below the
+     * starting number of songs for the original songs and is the number of songs plus the version of the write
+     * that made it otherwise. Every reader checks that each row it reads keeps that pairing, was not written after
+     * its snapshot, and is found among the rows of its artist, and that the version and size of the snapshots
+     * it takes never go back.
+     *
+     * @param songs the number of songs in the store before the writes start
+     * @throws InterruptedException if the benchmark is interrupted
+     */
+    public static void run(int songs) throws InterruptedException {
+        SongStore store = new SongStore(BenchmarkFixture.buildLibrary(songs));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+
+        // Readers take snapshots and check random rows from them
+        Thread[] readers = new Thread[READER_THREADS];
+        for (int t = 0; t < READER_THREADS; t++) {
+            long seed = t;
+            readers[t] = new Thread(() -> {
+                Random random = new Random(seed);
+                long lastVersion = 0;
+                int lastSize = 0;
+                long count = 0;
+                while (running.get()) {
+                    SongStore.Snapshot snapshot = store.snapshot();
+                    if (snapshot.version() < lastVersion || snapshot.size() < lastSize) {
+                        errors.incrementAndGet();
+                    }
+                    lastVersion = snapshot.version();
+                    lastSize = snapshot.size();
+                    for (int i = 0; i < 64; i++) {
+                        int row = random.nextInt(snapshot.size());
+                        if (!ConcurrencyBenchmark.isConsistent(snapshot, row, songs, i == 0)) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    count += 64;
+                }
+                reads.addAndGet(count);
+            });
+            readers[t].start();
+        }
+
+        // The writer alternates between adding a new song and replacing an existing one,
+        // numbering each song after the version its write will publish
+        Random random = new Random(22);
+        long writes = 0;
+        long start = System.nanoTime();
+        long deadline = start + STRESS_MILLIS * 1_000_000;
+        while (System.nanoTime() < deadline) {
+            SongStore.Snapshot before = store.snapshot();
+            int number = songs + (int) before.version();
+            String songName = "Song Number " + number;
+            boolean written;
+            if (writes % 2 == 0) {
+                written = store.add(songName, ConcurrencyBenchmark.pairedArtist(number)) != -1;
+            } else {
+                written = store.update(random.nextInt(before.size()), songName, ConcurrencyBenchmark.pairedArtist(number));
+            }
+            if (!written || store.snapshot().version() != before.version() + 1) {
+                errors.incrementAndGet();
+            }
+            writes++;
+        }
+        long elapsed = System.nanoTime() - start;
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        BenchmarkFixture.report(String.format("store reads (%d threads)", READER_THREADS), (int) Math.min(reads.get(), Integer.MAX_VALUE), elapsed);
+        BenchmarkFixture.report("store writes (1 thread)", (int) writes, elapsed);
+        if (errors.get() != 0) {
+            throw new IllegalStateException(errors.get() + " inconsistent reads or writes in the SongStore");
+        }
+    }
+
+    // The artist written with the song numbered n, the same one BenchmarkFixture.buildLibrary gives the original songs
+    private static String pairedArtist(int number) {
+        return "Artist " + (number % BenchmarkFixture.ARTISTS);
+    }
+
+    // Checks that a row keeps the pairing of its song name and artist and was written no later than the snapshot,
+    // and optionally that it is among the rows of its artist
+    private static boolean isConsistent(SongStore.Snapshot snapshot, int row, int songs, boolean checkArtistRows) {
+        String songName = snapshot.getSongName(row);
+        String artist = snapshot.getArtist(row);
+        if (songName == null || artist == null || !songName.startsWith("Song Number ")) {
+            return false;
+        }
+        int number = Integer.parseInt(songName.substring("Song Number ".length()));
+        if (!artist.equals(ConcurrencyBenchmark.pairedArtist(number)) || number - songs + 1 > snapshot.version()) {
+            return false;
+        }
+        return !checkArtistRows || snapshot.rowsOf(artist).containsSorted(row);
+    }
+
+    /**
+     * The main method
+     *
+     * @param args the array of command line arguments
+     * @throws InterruptedException  if the benchmark fails
+     */
+    public static void main(String[] args) throws InterruptedException  {
+        ConcurrencyBenchmark.run(BenchmarkFixture.songs(args));
+    }
+}
@@ -0,0 +1,89 @@
+package benchmark;
+
+import musiclibrary.SongJournal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A program that measures the journal append and recovery rates and the write amplification of the snapshots.
+ * <p>
+ * Usage: {@code java benchmark.JournalBenchmark [songs]}, where songs defaults to 1,000,000.
+ */
+public class JournalBenchmark {
+    // Constants
+    private static final int GROUP_COMMIT_SIZE = 1_000;
+
+    /**
+     * Measures the journal append and recovery rates and the write amplification of the snapshots.
+     * The recovered library is checked against the library that was written.
+     *
+     * @param songs the number of songs in the library
+     * @throws IOException if the journal cannot be written or read
+     */
+    public static void run(int songs) throws IOException {
+        String[][] library = BenchmarkFixture.buildLibrary(songs);
+        long logicalBytes = 0;
+        for (String[] row : library) {
+            logicalBytes += row[0].getBytes(StandardCharsets.UTF_8).length + row[1].getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        Path directory = Files.createTempDirectory("musiclibrary-journal");
+        try {
+            // Append every song, syncing once per group of records
+            long start = System.nanoTime();
+            try (SongJournal journal = new SongJournal(directory, Integer.MAX_VALUE)) {
+                journal.recover(); // Writes the header of the empty journal
+                for (int i = 0; i < songs; i++) {
+                    journal.appendAdd(library[i][0], library[i][1]);
+                    if ((i + 1) % GROUP_COMMIT_SIZE == 0) {
+                        journal.commit();
+                    }
+                }
+                journal.commit();
+                BenchmarkFixture.report("journal append", songs, System.nanoTime() - start);
+                System.out.printf("%-28s %14.2f\n", "journal write amplification", journal.getBytesJournaled() / (double) logicalBytes);
+            }
+
+            // Recover by replaying the whole journal
+            start = System.nanoTime();
+            String[][] recovered;
+            try (SongJournal journal = new SongJournal(directory, Integer.MAX_VALUE)) {
+                recovered = journal.recover();
+                BenchmarkFixture.report("recover (journal only)", songs, System.nanoTime() - start);
+
+                // Compact the journal into a snapshot
+                journal.snapshot(recovered);
+                System.out.printf("%-28s %14.2f\n", "snapshot write amplification", journal.getBytesSnapshotted() / (double) logicalBytes);
+            }
+            if (!Arrays.deepEquals(library, recovered)) {
+                throw new IllegalStateException("The library recovered from the journal differs from the saved library");
+            }
+
+            // Recover from the snapshot
+            start = System.nanoTime();
+            try (SongJournal journal = new SongJournal(directory, Integer.MAX_VALUE)) {
+                recovered = journal.recover();
+                BenchmarkFixture.report("recover (snapshot)", songs, System.nanoTime() - start);
+            }
+            if (!Arrays.deepEquals(library, recovered)) {
+                throw new IllegalStateException("The library recovered from the snapshot differs from the saved library");
+            }
+        } finally {
+            BenchmarkFixture.deleteDirectory(directory);
+        }
+    }
+
+    /**
+     * The main method
+     *
+     * @param args the array of command line arguments
+     * @throws IOException  if the benchmark fails
+     */
+    public static void main(String[] args) throws IOException  {
+        JournalBenchmark.run(BenchmarkFixture.songs(args));
+    }
+}
@@ -0,0 +1,163 @@
+package benchmark;
+
+import musiclibrary.ArtistKey;
+import musiclibrary.SongIndex;
+import musiclibrary.SongKeyFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A program that measures the duplicate checks against a sorted key file on disk guarded by a Bloom filter,
+ * and checks the songs that are changed, saved in the change log, and merged into the file.
+ * <p>
+ * Usage: {@code java benchmark.KeyFileBenchmark [songs]}, where songs defaults to 1,000,000.
+ */
+public class KeyFileBenchmark {
+    /**
+     * Measures duplicate checks against a sorted key file on disk, with Bloom filters of two false positive rates.
+     * Nine in ten lookups are for songs that do not exist, and found rows are checked against the library.
+     *
+     * @param songs the number of songs in the library
+     * @throws IOException if the key file cannot be written or read
+     */
+    public static void run(int songs) throws IOException {
+        String[][] library = BenchmarkFixture.buildLibrary(songs);
+        Path path = Files.createTempFile("musiclibrary", ".keys");
+        try {
+            for (double falsePositiveRate : new double[]{0.01, 0.001}) {
+                long start = System.nanoTime();
+                SongKeyFile.write(path, library, falsePositiveRate);
+                BenchmarkFixture.report(String.format("key file write (%.1f%%)", falsePositiveRate * 100), songs, System.nanoTime() - start);
+                System.out.printf("%-28s %,14d bytes\n", "key file size", Files.size(path));
+                System.out.printf("%-28s %,14d bytes\n", "bloom filter size", Files.size(SongKeyFile.filterPath(path)));
+
+                Random random = new Random(43);
+                int missingFound = 0;
+                try (SongKeyFile keys = SongKeyFile.open(path)) {
+                    start = System.nanoTime();
+                    for (int i = 0; i < BenchmarkFixture.QUERIES; i++) {
+                        int row = random.nextInt(songs);
+                        if (i % 10 == 0) {
+                            if (keys.find(SongIndex.key(library[row][0], ArtistKey.of(library[row][1].toUpperCase()))) != row) {
+                                throw new IllegalStateException("The key file did not find row " + row);
+                            }
+                        } else if (keys.contains(SongIndex.key("Missing " + library[row][0], ArtistKey.of(library[row][1])))) {
+                            missingFound++;
+                        }
+                    }
+                    BenchmarkFixture.reportLatency("key file lookup", BenchmarkFixture.QUERIES, System.nanoTime() - start);
+
+                    // Every lookup that reached the file costs about the same number of reads
+                    long probes = keys.getLookups() - keys.getFilteredLookups();
+                    double readsPerProbe = keys.getFileReads() / (double) Math.max(1, probes);
+                    System.out.printf("%-28s %,14d of %,d lookups (%d false positives)\n",
+                            "answered by the filter", keys.getFilteredLookups(), keys.getLookups(),
+                            probes - BenchmarkFixture.QUERIES / 10);
+                    System.out.printf("%-28s %,14.2f reads/lookup (%,.0f reads saved)\n", "key file reads",
+                            keys.getFileReads() / (double) keys.getLookups(), keys.getFilteredLookups() * readsPerProbe);
+                }
+                if (missingFound != 0) {
+                    throw new IllegalStateException("The key file found songs that do not exist");
+                }
+            }
+            KeyFileBenchmark.checkChanges(path, library);
+            KeyFileBenchmark.checkDuplicates(path);
+        } finally {
+            Files.deleteIfExists(SongKeyFile.filterPath(path));
+            Files.deleteIfExists(SongKeyFile.logPath(path));
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * Updates and adds songs through the change log of a key file, then checks the songs after the log is replayed
+     * and after the changes are merged into the file.
+     *
+     * @param path    the path of the key file, written from the library
+     * @param library the two-dimensional array containing songs and artists, which is changed like the key file
+     * @throws IOException if the key file cannot be written or read
+     */
+    public static void checkChanges(Path path, String[][] library) throws IOException {
+        int changes = Math.min(library.length, SongKeyFile.DEFAULT_MERGE_THRESHOLD);
+        String[][] expected = Arrays.copyOf(library, library.length + changes);
+        long start = System.nanoTime();
+        try (SongKeyFile keys = SongKeyFile.open(path)) {
+            for (int i = 0; i < changes; i++) {
+                int row = i * (library.length / changes);
+                expected[row] = new String[]{"Updated " + library[row][0], library[row][1]};
+                keys.update(row, expected[row][0], expected[row][1]);
+                expected[library.length + i] = new String[]{"Added Song " + i, "Artist " + i};
+                keys.add(expected[library.length + i][0], expected[library.length + i][1]);
+            }
+            keys.commit();
+            BenchmarkFixture.report("key file change", changes * 2, System.nanoTime() - start);
+            checkSongs(keys, library, expected, "after the changes");
+        }
+
+        // Replay the change log, then merge it into the file
+        try (SongKeyFile keys = SongKeyFile.open(path)) {
+            checkSongs(keys, library, expected, "after replaying the change log");
+            start = System.nanoTime();
+            keys.merge();
+            BenchmarkFixture.report("key file merge", expected.length, System.nanoTime() - start);
+            checkSongs(keys, library, expected, "after the merge");
+        }
+        try (SongKeyFile keys = SongKeyFile.open(path)) {
+            checkSongs(keys, library, expected, "after opening the merged file");
+        }
+    }
+
+    // Checks that every row of a song saved more than once is found, before and after its first row is renamed
+    private static void checkDuplicates(Path path) throws IOException {
+        String[][] duplicates = {{"Hello", "Adele"}, {"World", "Adele"}, {"Hello", "ADELE"}};
+        String hello = SongIndex.key("Hello", ArtistKey.of("adele"));
+        SongKeyFile.write(path, duplicates, SongKeyFile.DEFAULT_FALSE_POSITIVE_RATE);
+        Files.deleteIfExists(SongKeyFile.logPath(path));
+        try (SongKeyFile keys = SongKeyFile.open(path)) {
+            if (keys.rowsOf(hello).size() != 2 || !keys.hasOtherRow(hello, 0)) {
+                throw new IllegalStateException("The key file did not find every row of a duplicate song");
+            }
+            keys.update(0, "Goodbye", "Adele");
+            keys.commit();
+            if (keys.find(hello) != 2 || !keys.hasOtherRow(hello, 1) || keys.hasOtherRow(hello, 2)) {
+                throw new IllegalStateException("The key file lost the other row of a duplicate song after a rename");
+            }
+        }
+        try (SongKeyFile keys = SongKeyFile.open(path)) {
+            if (keys.find(hello) != 2 || !keys.hasOtherRow(hello, 1)) {
+                throw new IllegalStateException("The key file lost the other row of a duplicate song after a replay");
+            }
+        }
+    }
+
+    // Checks that a key file holds the expected songs, and that the old keys of the updated songs are gone
+    private static void checkSongs(SongKeyFile keys, String[][] library, String[][] expected, String when) throws IOException {
+        if (keys.size() != expected.length || !Arrays.deepEquals(keys.readAll(), expected)) {
+            throw new IllegalStateException("The songs of the key file differ " + when);
+        }
+        for (int row = 0; row < expected.length; row++) {
+            if (keys.find(SongIndex.key(expected[row][0], ArtistKey.of(expected[row][1]))) != row
+                    || !Arrays.equals(keys.getSong(row), expected[row])) {
+                throw new IllegalStateException("The key file lost row " + row + " " + when);
+            }
+            if (row < library.length && expected[row] != library[row]
+                    && keys.contains(SongIndex.key(library[row][0], ArtistKey.of(library[row][1])))) {
+                throw new IllegalStateException("The key file still has the old song of row " + row + " " + when);
+            }
+        }
+    }
+
+    /**
+     * The main method
+     *
+     * @param args the array of command line arguments
+     * @throws IOException  if the benchmark fails
+     */
+    public static void main(String[] args) throws IOException  {
+        KeyFileBenchmark.run(BenchmarkFixture.songs(args));
+    }
+}
@@ -0,0 +1,120 @@
+package benchmark;
+
+import musiclibrary.LibraryServer;
+import musiclibrary.SongStore;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A program that starts a {@code LibraryServer} and measures its requests per second and latency
+ * with many concurrent clients, each on its own connection and virtual thread.
+ * <p>
+ * Usage: {@code java benchmark.LoadGenerator [clients] [requests per client] [songs]},
+ * which defaults to 100 clients, 1,000 requests per client, and 100,000 songs.
+ * <p>
+ * The requests are 80% {@code LIST} of a random page, 10% {@code ARTIST}, and 10% {@code ADD}.
+ */
+public class LoadGenerator {
+    // Constants
+    private static final int PAGE_SIZE = 20;
+
+    // Sends requests on one connection and returns the latency of each request in nanoseconds
+    private static long[] runClient(int port, int client, int requests, int songs) {
+        long[] latencies = new long[requests];
+        Random random = new Random(client);
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            for (int i = 0; i < requests; i++) {
+                int kind = random.nextInt(10);
+                String request;
+                if (kind < 8) {
+                    request = "LIST " + random.nextInt(songs) + " " + PAGE_SIZE;
+                } else if (kind == 8) {
+                    request = "ARTIST Artist " + random.nextInt(BenchmarkFixture.ARTISTS);
+                } else {
+                    request = "ADD Client " + client + " Song " + i + "|Artist " + random.nextInt(BenchmarkFixture.ARTISTS);
+                }
+
+                long start = System.nanoTime();
+                out.write(request);
+                out.write('\n');
+                out.flush();
+
+                // Read the response, which has extra lines after a ROWS header
+                String response = in.readLine();
+                if (response == null || response.startsWith("ERROR")) {
+                    throw new IllegalStateException("Unexpected response to " + request + ": " + response);
+                }
+                if (response.startsWith("ROWS ")) {
+                    int rows = Integer.parseInt(response.substring(5));
+                    for (int r = 0; r < rows; r++) {
+                        in.readLine();
+                    }
+                }
+                latencies[i] = System.nanoTime() - start;
+            }
+            out.write("QUIT\n");
+            out.flush();
+            in.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return latencies;
+    }
+
+    /**
+     * The main method
+     *
+     * @param args the array of command line arguments
+     * @throws Exception if the server cannot be started or a client fails
+     */
+    public static void main(String[] args) throws Exception {
+        int clients = (args.length > 0) ? Integer.parseInt(args[0]) : 100;
+        int requests = (args.length > 1) ? Integer.parseInt(args[1]) : 1_000;
+        int songs = (args.length > 2) ? Integer.parseInt(args[2]) : 100_000;
+
+        SongStore store = new SongStore(BenchmarkFixture.buildLibrary(songs));
+        try (LibraryServer server = new LibraryServer(store, 0)) {
+            System.out.printf("Load testing %,d clients x %,d requests against %,d songs\n", clients, requests, songs);
+
+            // Start every client on its own virtual thread
+            long[][] latencies = new long[clients][];
+            Thread[] threads = new Thread[clients];
+            long start = System.nanoTime();
+            for (int c = 0; c < clients; c++) {
+                int client = c;
+                threads[c] = Thread.ofVirtual().start(() -> latencies[client] = runClient(server.getPort(), client, requests, songs));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            long elapsed = System.nanoTime() - start;
+
+            // Merge the latencies of every client to find the percentiles
+            long[] all = new long[clients * requests];
+            for (int c = 0; c < clients; c++) {
+                if (latencies[c] == null) {
+                    throw new IllegalStateException("Client " + c + " failed.");
+                }
+                System.arraycopy(latencies[c], 0, all, c * requests, requests);
+            }
+            Arrays.sort(all);
+            System.out.printf("%-12s %,14.0f requests/s\n", "throughput", all.length / (elapsed / 1e9));
+            System.out.printf("%-12s %,14.1f us\n", "p50 latency", all[all.length / 2] / 1e3);
+            System.out.printf("%-12s %,14.1f us\n", "p99 latency", all[(int) (all.length * 0.99)] / 1e3);
+            System.out.printf("%-12s %,14d songs\n", "final size", store.snapshot().size());
+        }
+    }
+}
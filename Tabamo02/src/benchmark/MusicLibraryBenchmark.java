@@ -0,0 +1,35 @@
+package benchmark;
+
+import java.io.IOException;
+
+/**
+ * A program that runs every benchmark of a {@code MusicLibrary} on one library size, one after another.
+ * <p>
+ * Usage: {@code java benchmark.MusicLibraryBenchmark [songs]}, where songs defaults to 1,000,000.
+ * Each benchmark can also be run on its own through its own main method.
+ */
+public class MusicLibraryBenchmark {
+    /**
+     * The main method
+     *
+     * @param args the array of command line arguments
+     * @throws IOException          if a benchmark cannot write or read its files
+     * @throws InterruptedException if a benchmark is interrupted
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int songs = BenchmarkFixture.songs(args);
+        System.out.printf("Benchmarking a library of %,d songs\n", songs);
+        RenderBenchmark.run(songs);
+        JournalBenchmark.run(songs);
+        CatalogBenchmark.run(songs);
+        KeyFileBenchmark.run(songs);
+        ArtistStatsBenchmark.run(songs);
+        ArtistKeyBenchmark.run(songs);
+        BatchUpdateBenchmark.run(songs);
+        ArenaBenchmark.run(songs);
+        SortingBenchmark.run(songs);
+        SearchBenchmark.run(songs);
+        SuggestionBenchmark.run(songs);
+        ConcurrencyBenchmark.run(songs);
+    }
+}
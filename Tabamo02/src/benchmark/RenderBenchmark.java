@@ -0,0 +1,62 @@
+package benchmark;
+
+import musiclibrary.MusicLibrary;
+
+import java.util.Arrays;
+
+/**
+ * A program that measures the render throughput of the library view with a {@code TableRenderer}
+ * against {@code String.format()}.
+ * <p>
+ * Usage: {@code java benchmark.RenderBenchmark [songs]}, where songs defaults to 1,000,000.
+ */
+public class RenderBenchmark {
+    // Renders the library the way viewLibrary() did before it used a TableRenderer
+    private static void viewLibraryWithFormat(String[][] library) {
+        int songMaxLen = "SONG NAME    ".length();
+        int artistMaxLen = "ARTIST    ".length();
+        for (String[] row : library) {
+            songMaxLen = Math.max(songMaxLen, row[0].length() + 4);
+            artistMaxLen = Math.max(artistMaxLen, row[1].length() + 4);
+        }
+        String header = "";
+        header += String.format("%-" + songMaxLen + "s", "SONG NAME    ");
+        header += String.format("%-" + artistMaxLen + "s", "ARTIST    ");
+        System.out.println(header);
+        for (String[] row : library) {
+            String rowDetails = "";
+            rowDetails += String.format("%-" + songMaxLen + "s", row[0]);
+            rowDetails += String.format("%-" + artistMaxLen + "s", row[1]);
+            System.out.println(rowDetails);
+        }
+    }
+
+    /**
+     * Measures the render throughput of the library view.
+     *
+     * @param songs the number of songs in the library
+     */
+    public static void run(int songs) {
+        // Check that the TableRenderer output is the same as the String.format() output, including characters
+        // that take more than one byte or are not valid on their own
+        String[][] small = BenchmarkFixture.buildLibrary(10_000);
+        small[1] = new String[]{"Caf\u00e9 del Mar \u6771\u4eac \uD83C\uDFB5", "Beyonc\u00e9"};
+        small[2] = new String[]{"Broken \uD83C", "\uDFB5 Half"};
+        if (!Arrays.equals(BenchmarkFixture.capture(() -> viewLibraryWithFormat(small)), BenchmarkFixture.capture(() -> MusicLibrary.viewLibrary(small)))) {
+            throw new IllegalStateException("viewLibrary() output differs from the String.format() output");
+        }
+
+        String[][] library = BenchmarkFixture.buildLibrary(songs);
+        BenchmarkFixture.report("viewLibrary (String.format)", songs, BenchmarkFixture.time(() -> viewLibraryWithFormat(library)));
+        BenchmarkFixture.report("viewLibrary (TableRenderer)", songs, BenchmarkFixture.time(() -> MusicLibrary.viewLibrary(library)));
+    }
+
+    /**
+     * The main method
+     *
+     * @param args the array of command line arguments
+     */
+    public static void main(String[] args) {
+        RenderBenchmark.run(BenchmarkFixture.songs(args));
+    }
+}
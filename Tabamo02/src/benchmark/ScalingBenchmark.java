@@ -0,0 +1,279 @@
+package benchmark;
+
+import musiclibrary.ArtistIndex;
+import musiclibrary.ArtistKey;
+import musiclibrary.ArtistStats;
+import musiclibrary.ColumnWidths;
+import musiclibrary.IntList;
+import musiclibrary.MusicLibrary;
+import musiclibrary.SongIndex;
+import musiclibrary.SongJournal;
+import musiclibrary.SongSuggester;
+import musiclibrary.SortedOrder;
+import musiclibrary.TitleSearchIndex;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A program that measures how the operations of a {@code MusicLibrary} scale as the library grows from 1,000 songs
+ * to a maximum size, reporting the throughput and the bytes allocated per operation.
+ * <p>
+ * Usage: {@code java benchmark.ScalingBenchmark [max songs]}, where max songs defaults to 1,000,000.
+ * Libraries of 10,000,000 songs need a heap of about 8 GB ({@code -Xmx8g}).
+ * <p>
+ * The artists of the songs follow a Zipfian distribution, so a few artists have most of the songs,
+ * like a real library. The operations are the ones {@code MusicLibrary} performs for its menu choices:
+ * <ul>
+ *     <li>insert: everything adding a song does after the prompts, from the duplicate check to the journal
+ *     record, with the sorted orders not yet sorted like in a library that has not been browsed. The songs are
+ *     written into the library array in place instead of copying the array for every song, and the journal is
+ *     synced once at the end instead of once per menu choice, which {@code JournalBenchmark} measures</li>
+ *     <li>insert (sorted): the same, for the last songs of a library whose sorted orders were already sorted</li>
+ *     <li>duplicate check: a lookup of a song that exists half of the time</li>
+ *     <li>artist filter: finding the rows of an artist, picked with the same skew as the library</li>
+ *     <li>title lookup: finding the rows with a song name</li>
+ *     <li>view artist songs and view library: rendering to a null stream</li>
+ * </ul>
+ */
+public class ScalingBenchmark {
+    // Constants
+    private static final int DEFAULT_MAX_SONGS = 1_000_000;
+    private static final int ARTISTS = 10_000;
+    private static final double ZIPF_EXPONENT = 1.0;
+    private static final int QUERIES = 10_000;
+    private static final int RENDER_QUERIES = 100;
+    private static final int WARMUP_RUNS = 2;
+    private static final int SORTED_INSERTS = 1_000;
+
+    // Counts the bytes allocated by each thread
+    private static final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Samples artists so that the k-th most common artist has a share proportional to 1 / k^s
+    private static final class ZipfSampler {
+        private final double[] cumulative;
+
+        private ZipfSampler(int artists, double exponent) {
+            this.cumulative = new double[artists];
+            double sum = 0;
+            for (int k = 0; k < artists; k++) {
+                sum += 1 / Math.pow(k + 1, exponent);
+                this.cumulative[k] = sum;
+            }
+            for (int k = 0; k < artists; k++) {
+                this.cumulative[k] /= sum;
+            }
+        }
+
+        private int next(Random random) {
+            int position = Arrays.binarySearch(this.cumulative, random.nextDouble());
+            return Math.min((position < 0) ? -(position + 1) : position, this.cumulative.length - 1);
+        }
+    }
+
+    // Builds a library with generated song names and Zipfian artists
+    private static String[][] buildLibrary(int songs, ZipfSampler sampler, Random random) {
+        String[][] library = new String[songs][2];
+        for (int i = 0; i < songs; i++) {
+            library[i][0] = "Song Number " + i;
+            library[i][1] = "Artist " + sampler.next(random);
+        }
+        return library;
+    }
+
+    // Runs an operation a number of times, after warming it up, and prints its throughput and allocation
+    private static void measure(String operation, int songs, int ops, IntUnaryOperator op) {
+        long checksum = 0;
+        for (int run = 0; run < WARMUP_RUNS; run++) {
+            for (int i = 0; i < ops; i++) {
+                checksum += op.applyAsInt(i);
+            }
+        }
+
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            checksum += op.applyAsInt(i);
+        }
+        long nanos = System.nanoTime() - start;
+        allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+        report(operation, songs, ops, nanos, allocated);
+        if (checksum == Long.MIN_VALUE) {
+            System.out.println(); // Keeps the results of the operation from being optimized away
+        }
+    }
+
+    // Prints one row of the results
+    private static void report(String operation, int songs, long ops, long nanos, long allocated) {
+        System.out.printf("%,12d  %-20s %,16.0f ops/s %,14.1f B/op\n",
+                songs, operation, ops / (nanos / 1e9), allocated / (double) ops);
+    }
+
+    // Runs an operation with System.out going to a null stream
+    private static int silently(Runnable view) {
+        PrintStream stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream(), false, StandardCharsets.UTF_8));
+        try {
+            view.run();
+        } finally {
+            System.setOut(stdout);
+        }
+        return 1;
+    }
+
+    // Holds every structure that addSong() updates, with a journal in a temporary directory
+    private static final class Inserter implements Closeable {
+        private final SongIndex songIndex = new SongIndex();
+        private final ArtistIndex artistIndex = new ArtistIndex();
+        private final ArtistStats artistStats = new ArtistStats();
+        private final ColumnWidths columnWidths = new ColumnWidths();
+        private final TitleSearchIndex titleIndex = new TitleSearchIndex();
+        private final SongSuggester suggester = new SongSuggester();
+        private final SortedOrder songNameOrder = SortedOrder.bySongName();
+        private final SortedOrder artistOrder = SortedOrder.byArtist();
+        private final Path directory;
+        private final SongJournal journal;
+
+        private Inserter() throws IOException {
+            this.directory = Files.createTempDirectory("musiclibrary-scaling");
+            this.journal = new SongJournal(this.directory, Integer.MAX_VALUE);
+            this.journal.recover(); // Writes the header of the empty journal
+        }
+
+        // Adds the rows from start to end of the library the way addSong() does, skipping duplicates
+        private void insert(String[][] library, int start, int end) throws IOException {
+            for (int row = start; row < end; row++) {
+                String songName = library[row][0];
+                String artist = library[row][1];
+                ArtistKey artistKey = ArtistKey.of(artist);
+                String songKey = SongIndex.key(songName, artistKey);
+                if (this.songIndex.contains(songKey)) {
+                    continue;
+                }
+                this.songIndex.add(songKey);
+                this.artistIndex.add(artistKey);
+                this.artistStats.add(artistKey);
+                this.columnWidths.add(songName, artistKey);
+                this.titleIndex.add(songName);
+                this.suggester.add(songName, artist);
+                this.songNameOrder.add(library);
+                this.artistOrder.add(library);
+                this.journal.appendAdd(songName, artist);
+            }
+        }
+
+        // Sorts both orders over the rows added so far, like browsing the library does
+        private void sortOrders(String[][] library, int size) {
+            String[][] added = Arrays.copyOf(library, size);
+            this.songNameOrder.rows(added);
+            this.artistOrder.rows(added);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                this.journal.commit();
+                this.journal.close();
+            } finally {
+                BenchmarkFixture.deleteDirectory(this.directory);
+            }
+        }
+    }
+
+    /**
+     * Measures every operation on one library size.
+     *
+     * @param songs the number of songs in the library
+     * @throws IOException if the journal cannot be written
+     */
+    public static void benchmarkSize(int songs) throws IOException {
+        Random random = new Random(41);
+        ZipfSampler sampler = new ZipfSampler(ARTISTS, ZIPF_EXPONENT);
+        String[][] library = buildLibrary(songs, sampler, random);
+
+        // Inserts change the indexes, so each run starts from empty indexes and only the last run is reported
+        long nanos = 0;
+        long allocated = 0;
+        for (int run = 0; run <= WARMUP_RUNS; run++) {
+            try (Inserter inserter = new Inserter()) {
+                allocated = threads.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                inserter.insert(library, 0, songs);
+                inserter.journal.commit();
+                nanos = System.nanoTime() - start;
+                allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+            }
+        }
+        report("insert", songs, songs, nanos, allocated);
+
+        // Once the library has been browsed, every insert also moves the song into both sorted orders
+        int sortedInserts = Math.min(SORTED_INSERTS, songs / 10);
+        try (Inserter inserter = new Inserter()) {
+            inserter.insert(library, 0, songs - sortedInserts);
+            inserter.sortOrders(library, songs - sortedInserts);
+            allocated = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            inserter.insert(library, songs - sortedInserts, songs);
+            inserter.journal.commit();
+            nanos = System.nanoTime() - start;
+            allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+        }
+        report("insert (sorted)", songs, sortedInserts, nanos, allocated);
+
+        SongIndex songIndex = new SongIndex();
+        songIndex.rebuild(library);
+        ArtistIndex artistIndex = new ArtistIndex();
+        artistIndex.rebuild(library);
+        TitleSearchIndex titleIndex = new TitleSearchIndex();
+        titleIndex.rebuild(library);
+
+        // Pick the queries up front so that only the operations are measured
+        String[] songNames = new String[QUERIES];
+        String[] songArtists = new String[QUERIES];
+        String[] artists = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            int row = random.nextInt(songs);
+            songNames[i] = (i % 2 == 0) ? library[row][0] : "Missing Song " + i;
+            songArtists[i] = library[row][1].toLowerCase();
+            artists[i] = "ARTIST " + sampler.next(random);
+        }
+
+        measure("duplicate check", songs, QUERIES, i -> songIndex.contains(SongIndex.key(songNames[i], ArtistKey.of(songArtists[i]))) ? 1 : 0);
+        measure("artist filter", songs, QUERIES, i -> {
+            IntList rows = artistIndex.rowsOf(artists[i]);
+            return rows.size();
+        });
+        measure("title lookup", songs, QUERIES, i -> titleIndex.rowsWithSongName(songNames[i], library).size());
+
+        // Rendering costs grow with the size of the output, so fewer of them are run
+        int renders = Math.max(1, Math.min(RENDER_QUERIES, 10_000_000 / songs));
+        measure("view artist songs", songs, renders,
+                i -> silently(() -> MusicLibrary.viewArtistSongs(library, new Scanner(artists[i] + "\n"))));
+        measure("view library", songs, Math.max(1, renders / 10), i -> silently(() -> MusicLibrary.viewLibrary(library)));
+    }
+
+    /**
+     * The main method
+     *
+     * @param args the array of command line arguments
+     * @throws IOException if the journal cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int maxSongs = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_MAX_SONGS;
+        System.out.printf("%12s  %-20s %22s %19s\n", "songs", "operation", "throughput", "allocation");
+        for (int songs = 1_000; songs <= maxSongs; songs *= 10) {
+            ScalingBenchmark.benchmarkSize(songs);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package benchmark;
+
+import musiclibrary.TitleSearchIndex;
+
+import java.util.Random;
+
+/**
+ * A program that measures the prefix and substring title searches.
+ * <p>
+ * Usage: {@code java benchmark.SearchBenchmark [songs]}, where songs defaults to 1,000,000.
+ */
+public class SearchBenchmark {
+    /**
+     * Measures the latency of prefix and substring queries on the song names of the library,
+     * including substring queries shorter than a trigram, and the heap the index takes.
+     *
+     * @param songs the number of songs in the library
+     */
+    public static void run(int songs) {
+        String[][] library = BenchmarkFixture.buildLibrary(songs);
+        long before = BenchmarkFixture.usedHeap();
+        TitleSearchIndex index = new TitleSearchIndex();
+        long start = System.nanoTime();
+        index.rebuild(library);
+        BenchmarkFixture.report("title index build", songs, System.nanoTime() - start);
+        System.out.printf("%-28s %,14.1f bytes/song\n", "title index size", (BenchmarkFixture.usedHeap() - before) / (double) songs);
+
+        // Query random song numbers so that most queries only match a few songs
+        Random random = new Random(22);
+        // Short queries are either a digit, which matches most songs, or a letter and a digit, which matches none
+        String[] queries = new String[BenchmarkFixture.QUERIES];
+        String[] shortQueries = new String[BenchmarkFixture.QUERIES];
+        for (int i = 0; i < BenchmarkFixture.QUERIES; i++) {
+            queries[i] = String.valueOf(random.nextInt(songs));
+            shortQueries[i] = ((i % 2 == 0) ? "" : "q") + random.nextInt(10);
+        }
+
+        long matches = 0;
+        for (int run = 0; run < 2; run++) {
+            start = System.nanoTime();
+            for (String query : queries) {
+                matches += index.searchPrefix("song number " + query, BenchmarkFixture.SEARCH_LIMIT).size();
+            }
+            long prefixNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (String query : queries) {
+                matches += index.searchSubstring("number " + query, library, BenchmarkFixture.SEARCH_LIMIT).size();
+            }
+            long substringNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (String query : shortQueries) {
+                matches += index.searchSubstring(query, library, BenchmarkFixture.SEARCH_LIMIT).size();
+            }
+            long shortNanos = System.nanoTime() - start;
+
+            // Only report the second run, after the JIT has compiled the queries
+            if (run == 1) {
+                BenchmarkFixture.reportLatency("prefix search", BenchmarkFixture.QUERIES, prefixNanos);
+                BenchmarkFixture.reportLatency("substring search", BenchmarkFixture.QUERIES, substringNanos);
+                BenchmarkFixture.reportLatency("short substring search", BenchmarkFixture.QUERIES, shortNanos);
+            }
+        }
+        if (matches == 0) {
+            throw new IllegalStateException("The searches did not find any songs");
+        }
+    }
+
+    /**
+     * The main method
+     *
+     * @param args the array of command line arguments
+     */
+    public static void main(String[] args) {
+        SearchBenchmark.run(BenchmarkFixture.songs(args));
+    }
+}
@@ -0,0 +1,73 @@
+package benchmark;
+
+import musiclibrary.IntList;
+import musiclibrary.SortedOrder;
+
+import java.util.Random;
+
+/**
+ * A program that measures the sorted orderings of the library as songs are updated.
+ * <p>
+ * Usage: {@code java benchmark.SortingBenchmark [songs]}, where songs defaults to 1,000,000.
+ */
+public class SortingBenchmark {
+    /**
+     * Measures the first sort of a sorted ordering and the latency of keeping it sorted while songs are updated.
+     * The maintained ordering is checked against a fresh sort of the updated library.
+     *
+     * @param songs the number of songs in the library
+     */
+    public static void run(int songs) {
+        String[][] library = BenchmarkFixture.buildLibrary(songs);
+        SortedOrder order = SortedOrder.bySongName();
+        order.rebuild(library);
+        long start = System.nanoTime();
+        order.rows(library);
+        BenchmarkFixture.report("sorted order first sort", songs, System.nanoTime() - start);
+
+        // Rename random songs so that they move across the ordering
+        Random random = new Random(38);
+        start = System.nanoTime();
+        for (int i = 0; i < BenchmarkFixture.QUERIES; i++) {
+            int row = random.nextInt(songs);
+            String oldSongName = library[row][0];
+            library[row][0] = "Renamed " + random.nextInt(songs);
+            order.update(library, row, oldSongName, library[row][1]);
+        }
+        BenchmarkFixture.reportLatency("sorted order update", BenchmarkFixture.QUERIES, System.nanoTime() - start);
+
+        // Read random pages of the ordering
+        start = System.nanoTime();
+        long checksum = 0;
+        for (int i = 0; i < BenchmarkFixture.QUERIES; i++) {
+            IntList rows = order.rows(library);
+            int first = random.nextInt(Math.max(1, rows.size() - BenchmarkFixture.SEARCH_LIMIT));
+            for (int r = first; r < Math.min(rows.size(), first + BenchmarkFixture.SEARCH_LIMIT); r++) {
+                checksum += library[rows.get(r)][0].length();
+            }
+        }
+        BenchmarkFixture.reportLatency("sorted page of " + BenchmarkFixture.SEARCH_LIMIT, BenchmarkFixture.QUERIES, System.nanoTime() - start);
+
+        SortedOrder fresh = SortedOrder.bySongName();
+        fresh.rebuild(library);
+        IntList expected = fresh.rows(library);
+        IntList actual = order.rows(library);
+        for (int i = 0; i < expected.size(); i++) {
+            if (expected.get(i) != actual.get(i)) {
+                throw new IllegalStateException("The maintained ordering differs from a fresh sort at position " + i);
+            }
+        }
+        if (checksum == 0) {
+            throw new IllegalStateException("The sorted pages were empty");
+        }
+    }
+
+    /**
+     * The main method
+     *
+     * @param args the array of command line arguments
+     */
+    public static void main(String[] args) {
+        SortingBenchmark.run(BenchmarkFixture.songs(args));
+    }
+}
@@ -0,0 +1,67 @@
+package benchmark;
+
+import musiclibrary.SongSuggester;
+
+import java.util.Random;
+
+/**
+ * A program that measures the typo-tolerant artist and song name suggestions.
+ * <p>
+ * Usage: {@code java benchmark.SuggestionBenchmark [songs]}, where songs defaults to 1,000,000.
+ */
+public class SuggestionBenchmark {
+    /**
+     * Measures the latency of typo-tolerant artist and song name suggestions as the library grows.
+     *
+     * @param songs the number of songs in the largest library
+     */
+    public static void run(int songs) {
+        for (int size = Math.min(10_000, songs); size <= songs; size *= 10) {
+            String[][] library = BenchmarkFixture.buildLibrary(size);
+            SongSuggester suggester = new SongSuggester();
+            suggester.rebuild(library);
+
+            // Mistype random artists and song names by swapping two characters
+            Random random = new Random(22);
+            int queries = 1_000;
+            String[] artistQueries = new String[queries];
+            String[] songNameQueries = new String[queries];
+            for (int i = 0; i < queries; i++) {
+                String[] row = library[random.nextInt(size)];
+                artistQueries[i] = row[1].substring(0, 2) + row[1].charAt(3) + row[1].charAt(2) + row[1].substring(4);
+                songNameQueries[i] = row[0].substring(0, 2) + row[0].charAt(3) + row[0].charAt(2) + row[0].substring(4);
+            }
+
+            long found = 0;
+            long artistNanos = 0;
+            long songNameNanos = 0;
+            for (int run = 0; run < 2; run++) {
+                long start = System.nanoTime();
+                for (String query : artistQueries) {
+                    found += suggester.suggestArtists(query).size();
+                }
+                artistNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (String query : songNameQueries) {
+                    found += suggester.suggestSongNames(query).size();
+                }
+                songNameNanos = System.nanoTime() - start;
+            }
+            if (found == 0) {
+                throw new IllegalStateException("The suggestions did not find any songs");
+            }
+            BenchmarkFixture.reportLatency(String.format("artist suggestions (%,d)", size), queries, artistNanos);
+            BenchmarkFixture.reportLatency(String.format("song suggestions (%,d)", size), queries, songNameNanos);
+        }
+    }
+
+    /**
+     * The main method
+     *
+     * @param args the array of command line arguments
+     */
+    public static void main(String[] args) {
+        SuggestionBenchmark.run(BenchmarkFixture.songs(args));
+    }
+}
@@ -0,0 +1,9 @@
+/**
+ * A package containing benchmark programs that measure the throughput of the MusicLibrary class on large libraries.
+ * <p>
+ * Each feature has its own benchmark program, and {@code MusicLibraryBenchmark} runs all of them.
+ * The benchmarks share their generated libraries, timers, and reports through {@code BenchmarkFixture}.
+ * <p>
+ * <b>Note:</b> This program is written in JDK 21 and may require JDK 21 or higher.
+ */
+package benchmark;
@@ -0,0 +1,112 @@
+package musiclibrary;
+
+import java.util.HashMap;
+
+/**
+ * A secondary index from a case-folded artist to the rows of the library with songs by that artist.
+ * <p>
+ * The rows of each artist are kept in ascending order so that filtered views list songs in library order.
+ */
+public class ArtistIndex {
+    // Attributes
+    private final HashMap<ArtistKey, IntList> rowsByArtist;
+    private int size;
+
+    /**
+     * Creates a new empty {@code ArtistIndex}.
+     */
+    public ArtistIndex() {
+        this.rowsByArtist = new HashMap<>();
+        this.size = 0;
+    }
+
+    // Getter
+
+    /**
+     * @return the number of rows that have been indexed
+     */
+    public int size() {
+        return this.size;
+    }
+
+    // Methods
+
+    /**
+     * Gets the rows of the songs by an artist, ignoring case.
+     * <p>
+     * The returned list is owned by the index and must not be modified.
+     *
+     * @param artist the artist to find
+     * @return the rows of the artist in ascending order, or an empty list if the artist has no songs
+     */
+    public IntList rowsOf(String artist) {
+        return this.rowsOf(ArtistKey.of(artist));
+    }
+
+    /**
+     * Gets the rows of the songs by an artist.
+     * <p>
+     * The returned list is owned by the index and must not be modified.
+     *
+     * @param artist the key of the artist to find
+     * @return the rows of the artist in ascending order, or an empty list if the artist has no songs
+     */
+    public IntList rowsOf(ArtistKey artist) {
+        IntList rows = this.rowsByArtist.get(artist);
+        return (rows == null) ? new IntList() : rows;
+    }
+
+    /**
+     * Indexes a song that was appended to the library.
+     *
+     * @param artist the artist of the new row
+     */
+    public void add(String artist) {
+        this.add(ArtistKey.of(artist));
+    }
+
+    /**
+     * Indexes a song that was appended to the library.
+     *
+     * @param artist the key of the artist of the new row
+     */
+    public void add(ArtistKey artist) {
+        this.rowsByArtist.computeIfAbsent(artist, k -> new IntList()).add(this.size++);
+    }
+
+    /**
+     * Moves a row to another artist after its artist was changed.
+     *
+     * @param row       the row that was updated
+     * @param oldKey the key of the artist before the update
+     * @param newKey the key of the artist after the update
+     */
+    public void update(int row, ArtistKey oldKey, ArtistKey newKey) {
+        if (oldKey.equals(newKey)) {
+            return;
+        }
+
+        // Remove the row from the old artist and forget the artist if it has no songs left
+        IntList oldRows = this.rowsByArtist.get(oldKey);
+        if (oldRows != null) {
+            oldRows.removeSorted(row);
+            if (oldRows.size() == 0) {
+                this.rowsByArtist.remove(oldKey);
+            }
+        }
+        this.rowsByArtist.computeIfAbsent(newKey, k -> new IntList()).insertSorted(row);
+    }
+
+    /**
+     * Discards the index and indexes every row of the library again.
+     *
+     * @param library the two-dimensional array containing songs and artists
+     */
+    public void rebuild(String[][] library) {
+        this.rowsByArtist.clear();
+        this.size = 0;
+        for (String[] row : library) {
+            this.add(row[1]);
+        }
+    }
+}
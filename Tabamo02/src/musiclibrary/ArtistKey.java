@@ -0,0 +1,68 @@
+package musiclibrary;
+
+/**
+ * The normalized key of an artist, case-folded once when the key is created, with its hash code kept beside it.
+ * <p>
+ * Two keys are equal exactly when {@link String#equalsIgnoreCase(String)} considers their artists equal.
+ * Comparing two keys first compares their hash codes, so artists that differ are almost always told apart
+ * without comparing their characters.
+ */
+public final class ArtistKey {
+    // Attributes
+    private final String artist;
+    private final String folded;
+    private final int hash;
+
+    // Folds an artist and hashes the folded artist
+    private ArtistKey(String artist) {
+        this.artist = artist;
+        this.folded = SongIndex.foldCase(artist);
+        this.hash = this.folded.hashCode();
+    }
+
+    /**
+     * Creates the key of an artist.
+     *
+     * @param artist the artist
+     * @return the key of the artist
+     */
+    public static ArtistKey of(String artist) {
+        return new ArtistKey(artist);
+    }
+
+    // Getters
+
+    /**
+     * @return the artist as it was given
+     */
+    public String getArtist() {
+        return this.artist;
+    }
+
+    /**
+     * @return the case-folded artist
+     */
+    public String getFolded() {
+        return this.folded;
+    }
+
+    // Methods
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof ArtistKey other && this.hash == other.hash && this.folded.equals(other.folded);
+    }
+
+    @Override
+    public String toString() {
+        return this.folded;
+    }
+}
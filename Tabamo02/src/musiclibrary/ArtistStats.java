@@ -0,0 +1,150 @@
+package musiclibrary;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the number of songs of each artist, ignoring case, updated as songs are added and updated.
+ * <p>
+ * Artists are grouped into buckets by their number of songs, and only buckets with artists are kept.
+ * Moving an artist to the next bucket costs a logarithm of the number of distinct counts, and listing
+ * the top artists only walks as many artists as are listed.
+ */
+public class ArtistStats {
+    // Attributes
+    private final HashMap<ArtistKey, Integer> counts;
+    private final TreeMap<Integer, LinkedHashSet<ArtistKey>> buckets;
+    private int size;
+
+    /**
+     * Creates a new empty {@code ArtistStats}.
+     */
+    public ArtistStats() {
+        this.counts = new HashMap<>();
+        this.buckets = new TreeMap<>();
+        this.size = 0;
+    }
+
+    // Getters
+
+    /**
+     * @return the number of rows that have been counted
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the number of distinct artists, ignoring case
+     */
+    public int getArtistCount() {
+        return this.counts.size();
+    }
+
+    /**
+     * @param artist the artist to count the songs of, ignoring case
+     * @return the number of songs of the artist
+     */
+    public int countOf(String artist) {
+        return this.counts.getOrDefault(ArtistKey.of(artist), 0);
+    }
+
+    /**
+     * @param artist the key of the artist to count the songs of
+     * @return the number of songs of the artist
+     */
+    public int countOf(ArtistKey artist) {
+        return this.counts.getOrDefault(artist, 0);
+    }
+
+    // Methods
+
+    /**
+     * Lists the artists with the most songs, from the most songs to the least.
+     * Artists with the same number of songs are listed in the order they reached that number.
+     *
+     * @param limit the maximum number of artists to list
+     * @return the keys of the artists
+     */
+    public List<ArtistKey> topArtists(int limit) {
+        List<ArtistKey> artists = new ArrayList<>(Math.min(limit, this.counts.size()));
+        for (Map.Entry<Integer, LinkedHashSet<ArtistKey>> bucket : this.buckets.descendingMap().entrySet()) {
+            for (ArtistKey artist : bucket.getValue()) {
+                if (artists.size() == limit) {
+                    return artists;
+                }
+                artists.add(artist);
+            }
+        }
+        return artists;
+    }
+
+    /**
+     * Counts a song that was appended to the library.
+     *
+     * @param artist the artist of the new row
+     */
+    public void add(String artist) {
+        this.add(ArtistKey.of(artist));
+    }
+
+    /**
+     * Counts a song that was appended to the library.
+     *
+     * @param artist the key of the artist of the new row
+     */
+    public void add(ArtistKey artist) {
+        this.move(artist, 1);
+        this.size++;
+    }
+
+    /**
+     * Moves a song from one artist to another after its artist was changed.
+     *
+     * @param oldKey the key of the artist before the update
+     * @param newKey the key of the artist after the update
+     */
+    public void update(ArtistKey oldKey, ArtistKey newKey) {
+        if (!oldKey.equals(newKey)) {
+            this.move(oldKey, -1);
+            this.move(newKey, 1);
+        }
+    }
+
+    /**
+     * Discards the counts and counts every row of the library again.
+     *
+     * @param library the two-dimensional array containing songs and artists
+     */
+    public void rebuild(String[][] library) {
+        this.counts.clear();
+        this.buckets.clear();
+        this.size = 0;
+        for (String[] row : library) {
+            this.add(row[1]);
+        }
+    }
+
+    // Changes the count of an artist and moves it to the bucket of its new count
+    private void move(ArtistKey key, int change) {
+        int oldCount = this.counts.getOrDefault(key, 0);
+        int newCount = oldCount + change;
+        if (oldCount > 0) {
+            LinkedHashSet<ArtistKey> bucket = this.buckets.get(oldCount);
+            bucket.remove(key);
+            if (bucket.isEmpty()) {
+                this.buckets.remove(oldCount);
+            }
+        }
+        if (newCount > 0) {
+            this.counts.put(key, newCount);
+            this.buckets.computeIfAbsent(newCount, k -> new LinkedHashSet<>()).add(key);
+        } else {
+            this.counts.remove(key);
+        }
+    }
+}
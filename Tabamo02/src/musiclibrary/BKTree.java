@@ -0,0 +1,187 @@
+package musiclibrary;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A BK-tree of distinct case-folded terms, such as artists or song names, used to find the terms within a small edit
+ * distance of a mistyped query.
+ * <p>
+ * Each child of a node is keyed by its edit distance to the node, so by the triangle inequality a search only has to
+ * visit the children whose key is within the allowed distance of the query's distance to the node. Terms are counted
+ * so that a term is only suggested while at least one song still uses it.
+ */
+public class BKTree {
+    // Attributes
+    private Node root;
+    private final HashMap<String, Integer> counts;
+    private final HashMap<String, String> displayTerms;
+
+    /**
+     * Creates a new empty {@code BKTree}.
+     */
+    public BKTree() {
+        this.root = null;
+        this.counts = new HashMap<>();
+        this.displayTerms = new HashMap<>();
+    }
+
+    // Methods
+
+    /**
+     * Adds a use of a term to the tree.
+     *
+     * @param term the term to add, which is suggested as it was first added
+     */
+    public void add(String term) {
+        String key = SongIndex.foldCase(term);
+        if (this.counts.merge(key, 1, Integer::sum) > 1) {
+            return;
+        }
+        this.displayTerms.putIfAbsent(key, term);
+
+        // A term that was removed before is still in the tree, it only has to be counted again
+        if (this.root == null) {
+            this.root = new Node(key);
+            return;
+        }
+        Node node = this.root;
+        while (true) {
+            int distance = editDistance(key, node.term, Integer.MAX_VALUE);
+            if (distance == 0) {
+                return;
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(key));
+                node.maxChildDistance = Math.max(node.maxChildDistance, distance);
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Removes a use of a term from the tree. The term is no longer suggested once it has no uses left.
+     *
+     * @param term the term to remove
+     */
+    public void remove(String term) {
+        String key = SongIndex.foldCase(term);
+        Integer count = this.counts.get(key);
+        if (count == null) {
+            return;
+        }
+        if (count == 1) {
+            this.counts.remove(key);
+            this.displayTerms.remove(key);
+        } else {
+            this.counts.put(key, count - 1);
+        }
+    }
+
+    /**
+     * Removes every term from the tree.
+     */
+    public void clear() {
+        this.root = null;
+        this.counts.clear();
+        this.displayTerms.clear();
+    }
+
+    /**
+     * Finds the terms within an edit distance of a query, ignoring case.
+     *
+     * @param query       the query to find similar terms for
+     * @param maxDistance the maximum number of single-character insertions, deletions, and substitutions
+     * @param limit       the maximum number of terms to return
+     * @return the similar terms, closest first and then in alphabetical order
+     */
+    public List<String> search(String query, int maxDistance, int limit) {
+        String key = SongIndex.foldCase(query);
+        ArrayList<Match> matches = new ArrayList<>();
+
+        // Visit the nodes whose children may hold terms within the distance
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        if (this.root != null) {
+            stack.push(this.root);
+        }
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            // The distance only needs to be known exactly while it can still select a child
+            int distance = editDistance(key, node.term, node.maxChildDistance + maxDistance);
+            if (distance <= maxDistance && this.counts.containsKey(node.term)) {
+                matches.add(new Match(distance, node.term));
+            }
+            for (var entry : node.children.entrySet()) {
+                if (Math.abs(entry.getKey() - distance) <= maxDistance) {
+                    stack.push(entry.getValue());
+                }
+            }
+        }
+
+        // Rank the matches by distance, then alphabetically
+        matches.sort(Comparator.comparingInt(Match::distance).thenComparing(Match::term));
+        ArrayList<String> result = new ArrayList<>();
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            result.add(this.displayTerms.get(matches.get(i).term()));
+        }
+        return result;
+    }
+
+    /**
+     * Computes the Levenshtein edit distance between two strings, stopping early once it exceeds a bound.
+     *
+     * @param a     the first string
+     * @param b     the second string
+     * @param bound the largest distance that needs to be known exactly
+     * @return the edit distance, or a value greater than the bound if the distance exceeds it
+     */
+    public static int editDistance(String a, String b, int bound) {
+        if (Math.abs(a.length() - b.length()) > bound) {
+            return bound + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = (a.charAt(i - 1) == b.charAt(j - 1)) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            // Every later row is at least the smallest value of this row
+            if (rowMin > bound) {
+                return bound + 1;
+            }
+            int[] temp = previous;
+            previous = current;
+            current = temp;
+        }
+        return previous[b.length()];
+    }
+
+    // A term in the tree and its children keyed by their distance to the term
+    private static class Node {
+        private final String term;
+        private final HashMap<Integer, Node> children;
+        private int maxChildDistance;
+
+        private Node(String term) {
+            this.term = term;
+            this.children = new HashMap<>();
+            this.maxChildDistance = 0;
+        }
+    }
+
+    // A term found by a search and its distance to the query
+    private record Match(int distance, String term) {
+    }
+}
@@ -0,0 +1,161 @@
+package musiclibrary;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * A Bloom filter over byte string keys that answers whether a key might have been added.
+ * <p>
+ * A key that was added is always reported as possibly present. A key that was not added is reported as absent,
+ * except for a false positive rate chosen when the filter is created. Filters can be written to and read from a stream.
+ */
+public class BloomFilter {
+    // Constants
+    private static final int MAGIC = 0x4D4C4231; // "MLB1"
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    // Attributes
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    // Creates a filter over an existing array of bits
+    private BloomFilter(long[] bits, int hashCount) {
+        this.bits = bits;
+        this.bitCount = (long) bits.length * Long.SIZE;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Creates a new empty {@code BloomFilter} sized for a number of keys and a false positive rate.
+     *
+     * @param expectedKeys      the number of keys that will be added
+     * @param falsePositiveRate the chance that a key that was not added is reported as possibly present,
+     *                          between 0 and 1
+     * @return the filter
+     */
+    public static BloomFilter create(long expectedKeys, double falsePositiveRate) {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("The false positive rate must be between 0 and 1.");
+        }
+        // The optimal number of bits is -n ln(p) / ln(2)^2, and the optimal number of hashes is (m / n) ln(2)
+        long n = Math.max(1, expectedKeys);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int k = (int) Math.max(1, Math.round((double) m / n * Math.log(2)));
+        long words = Math.max(1, (m + Long.SIZE - 1) / Long.SIZE);
+        if (words > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many keys for a Bloom filter.");
+        }
+        return new BloomFilter(new long[(int) words], k);
+    }
+
+    // Getters
+
+    /**
+     * @return the number of bits in the filter
+     */
+    public long getBitCount() {
+        return this.bitCount;
+    }
+
+    /**
+     * @return the number of bits set for each key
+     */
+    public int getHashCount() {
+        return this.hashCount;
+    }
+
+    // Methods
+
+    /**
+     * Adds a key to the filter.
+     *
+     * @param key the key to add
+     */
+    public void add(byte[] key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ FNV_PRIME) | 1;
+        for (int i = 0; i < this.hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, this.bitCount);
+            this.bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Checks if a key might have been added to the filter.
+     *
+     * @param key the key to check
+     * @return false if the key was definitely not added, otherwise true
+     */
+    public boolean mightContain(byte[] key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ FNV_PRIME) | 1;
+        for (int i = 0; i < this.hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, this.bitCount);
+            if ((this.bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the filter to a stream.
+     *
+     * @param out the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(this.hashCount);
+        out.writeInt(this.bits.length);
+        for (long word : this.bits) {
+            out.writeLong(word);
+        }
+    }
+
+    /**
+     * Reads a filter that was written to a stream.
+     *
+     * @param in the stream to read from
+     * @return the filter
+     * @throws IOException if the stream cannot be read or does not hold a filter
+     */
+    public static BloomFilter read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a Bloom filter.");
+        }
+        int hashCount = in.readInt();
+        int words = in.readInt();
+        if (hashCount <= 0 || words <= 0) {
+            throw new IOException("Corrupt Bloom filter.");
+        }
+        long[] bits = new long[words];
+        for (int i = 0; i < words; i++) {
+            bits[i] = in.readLong();
+        }
+        return new BloomFilter(bits, hashCount);
+    }
+
+    // Hashes a key with 64-bit FNV-1a, then mixes the bits so that every bit depends on every byte
+    private static long hash(byte[] key) {
+        long h = FNV_OFFSET_BASIS;
+        for (byte b : key) {
+            h ^= b & 0xFF;
+            h *= FNV_PRIME;
+        }
+        return mix(h);
+    }
+
+    // The finalizer of MurmurHash3
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,177 @@
+package musiclibrary;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Keeps track of the longest song name and artist in a music library so that views do not need to scan the library
+ * to align their columns.
+ * <p>
+ * The widths are updated as songs are added and updated. When an update shrinks the longest value, the maximum is
+ * recomputed lazily the next time it is asked for instead of on every update or render.
+ */
+public class ColumnWidths {
+    // Attributes
+    private final LengthCounter songNameLengths;
+    private final LengthCounter artistLengths;
+    private final HashMap<ArtistKey, Integer> songNameMaxByArtist;
+    private final HashSet<ArtistKey> staleArtists;
+    private int size;
+
+    /**
+     * Creates a new empty {@code ColumnWidths}.
+     */
+    public ColumnWidths() {
+        this.songNameLengths = new LengthCounter();
+        this.artistLengths = new LengthCounter();
+        this.songNameMaxByArtist = new HashMap<>();
+        this.staleArtists = new HashSet<>();
+        this.size = 0;
+    }
+
+    // Getters
+
+    /**
+     * @return the number of rows that have been counted
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the length of the longest song name in the library
+     */
+    public int maxSongNameLength() {
+        return this.songNameLengths.max();
+    }
+
+    /**
+     * @return the length of the longest artist in the library
+     */
+    public int maxArtistLength() {
+        return this.artistLengths.max();
+    }
+
+    // Methods
+
+    /**
+     * Gets the length of the longest song name by an artist, ignoring case.
+     * If the widths of the artist went stale after an update, they are recomputed from the rows of the artist only.
+     *
+     * @param artist      the artist to measure
+     * @param library     the two-dimensional array containing songs and artists
+     * @param artistIndex the artist index of the library
+     * @return the length of the longest song name by the artist, or 0 if the artist has no songs
+     */
+    public int maxSongNameLength(String artist, String[][] library, ArtistIndex artistIndex) {
+        ArtistKey key = ArtistKey.of(artist);
+        if (this.staleArtists.remove(key)) {
+            int max = 0;
+            IntList rows = artistIndex.rowsOf(key);
+            for (int i = 0; i < rows.size(); i++) {
+                max = Math.max(max, library[rows.get(i)][0].length());
+            }
+            if (max == 0) {
+                this.songNameMaxByArtist.remove(key);
+            } else {
+                this.songNameMaxByArtist.put(key, max);
+            }
+        }
+        return this.songNameMaxByArtist.getOrDefault(key, 0);
+    }
+
+    /**
+     * Counts a song that was appended to the library.
+     *
+     * @param songName the song name of the new row
+     * @param artist   the artist of the new row
+     */
+    public void add(String songName, String artist) {
+        this.add(songName, ArtistKey.of(artist));
+    }
+
+    /**
+     * Counts a song that was appended to the library.
+     *
+     * @param songName the song name of the new row
+     * @param artist   the key of the artist of the new row
+     */
+    public void add(String songName, ArtistKey artist) {
+        this.songNameLengths.add(songName.length());
+        this.artistLengths.add(artist.getArtist().length());
+        this.songNameMaxByArtist.merge(artist, songName.length(), Math::max);
+        this.size++;
+    }
+
+    /**
+     * Updates the counts of a row whose song name or artist was changed.
+     *
+     * @param oldSongName the song name before the update
+     * @param oldKey      the key of the artist before the update
+     * @param newSongName the song name after the update
+     * @param newKey      the key of the artist after the update
+     */
+    public void update(String oldSongName, ArtistKey oldKey, String newSongName, ArtistKey newKey) {
+        this.songNameLengths.remove(oldSongName.length());
+        this.songNameLengths.add(newSongName.length());
+        this.artistLengths.remove(oldKey.getArtist().length());
+        this.artistLengths.add(newKey.getArtist().length());
+
+        // If the old song name may have been the longest of its artist, then recompute it when it is needed
+        Integer oldMax = this.songNameMaxByArtist.get(oldKey);
+        if (oldMax != null && oldMax == oldSongName.length()) {
+            this.staleArtists.add(oldKey);
+        }
+        this.songNameMaxByArtist.merge(newKey, newSongName.length(), Math::max);
+    }
+
+    /**
+     * Discards the counts and counts every row of the library again.
+     *
+     * @param library the two-dimensional array containing songs and artists
+     */
+    public void rebuild(String[][] library) {
+        this.songNameLengths.clear();
+        this.artistLengths.clear();
+        this.songNameMaxByArtist.clear();
+        this.staleArtists.clear();
+        this.size = 0;
+        for (String[] row : library) {
+            this.add(row[0], row[1]);
+        }
+    }
+
+    /**
+     * Counts how many values have each length so that the maximum can be found again after a value is removed.
+     */
+    private static class LengthCounter {
+        private int[] counts = new int[32];
+        private int max = 0;
+
+        private void add(int length) {
+            if (length >= this.counts.length) {
+                this.counts = Arrays.copyOf(this.counts, Math.max(length + 1, this.counts.length * 2));
+            }
+            this.counts[length]++;
+            this.max = Math.max(this.max, length);
+        }
+
+        private void remove(int length) {
+            this.counts[length]--;
+        }
+
+        private int max() {
+            // Walk down from the old maximum only when the longest values were removed
+            while (this.max > 0 && this.counts[this.max] == 0) {
+                this.max--;
+            }
+            return this.max;
+        }
+
+        private void clear() {
+            Arrays.fill(this.counts, 0);
+            this.max = 0;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package musiclibrary;
+
+import java.util.Arrays;
+
+/**
+ * A music library that keeps its song names and artists in a {@link StringArena} instead of as {@code String}s.
+ * <p>
+ * Each song only costs two {@code int} addresses, the link to the next song by its artist, and the UTF-8 bytes of its
+ * song name, instead of a {@code String[]} row and two {@code String}s. Artists are written to the arena once and
+ * shared by all of their songs. They are found through a hash table of {@code int}s that is hashed by the case-folded
+ * artist, so the different cases of an artist are found together, and each artist links its songs in row order.
+ */
+public class CompactLibrary {
+    // Constants
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NONE = -1;
+
+    // Attributes
+    private final StringArena arena;
+    private int[] artistTable; // The number of a distinct artist plus one in each used slot, otherwise 0
+    private int[] artistAddresses; // The address of each distinct artist in the arena
+    private int[] artistHashes; // The hash code of each distinct artist, case-folded
+    private int[] firstArtistRows; // The first row of each distinct artist
+    private int[] lastArtistRows; // The last row of each distinct artist
+    private int artistCount;
+    private int[] songNames;
+    private int[] artists;
+    private int[] nextArtistRows; // The next row by the same distinct artist, otherwise NONE
+    private int size;
+
+    /**
+     * Creates a new empty {@code CompactLibrary}.
+     */
+    public CompactLibrary() {
+        this.arena = new StringArena();
+        this.artistTable = new int[INITIAL_CAPACITY * 2];
+        this.artistAddresses = new int[INITIAL_CAPACITY];
+        this.artistHashes = new int[INITIAL_CAPACITY];
+        this.firstArtistRows = new int[INITIAL_CAPACITY];
+        this.lastArtistRows = new int[INITIAL_CAPACITY];
+        this.artistCount = 0;
+        this.songNames = new int[INITIAL_CAPACITY];
+        this.artists = new int[INITIAL_CAPACITY];
+        this.nextArtistRows = new int[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Creates a new {@code CompactLibrary} with the songs of a library.
+     *
+     * @param library the two-dimensional array containing songs and artists
+     * @return the compact library
+     */
+    public static CompactLibrary of(String[][] library) {
+        CompactLibrary compact = new CompactLibrary();
+        compact.songNames = new int[Math.max(INITIAL_CAPACITY, library.length)];
+        compact.artists = new int[compact.songNames.length];
+        compact.nextArtistRows = new int[compact.songNames.length];
+        for (String[] row : library) {
+            compact.add(row[0], row[1]);
+        }
+        return compact;
+    }
+
+    // Getters
+
+    /**
+     * @return the number of songs in the library
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @param row the row of the song
+     * @return the song name of the song
+     */
+    public String getSongName(int row) {
+        this.checkRow(row);
+        return this.arena.get(this.songNames[row]);
+    }
+
+    /**
+     * @param row the row of the song
+     * @return the artist of the song
+     */
+    public String getArtist(int row) {
+        this.checkRow(row);
+        return this.arena.get(this.artists[row]);
+    }
+
+    /**
+     * @return the number of distinct artists, where artists that only differ in case are counted separately
+     */
+    public int getArtistCount() {
+        return this.artistCount;
+    }
+
+    /**
+     * @return the number of bytes used by the arena, the arrays of the songs, and the arrays of the artists
+     */
+    public long getBytesUsed() {
+        return this.arena.getBytesAllocated()
+                + 3L * Integer.BYTES * this.songNames.length
+                + (long) Integer.BYTES * this.artistTable.length
+                + 4L * Integer.BYTES * this.artistAddresses.length;
+    }
+
+    // Methods
+
+    /**
+     * Adds a song to the end of the library.
+     *
+     * @param songName the song name of the new song
+     * @param artist   the artist of the new song
+     * @return the row of the new song
+     */
+    public int add(String songName, String artist) {
+        if (this.size == this.songNames.length) {
+            this.songNames = Arrays.copyOf(this.songNames, this.size * 2);
+            this.artists = Arrays.copyOf(this.artists, this.size * 2);
+            this.nextArtistRows = Arrays.copyOf(this.nextArtistRows, this.size * 2);
+        }
+        int row = this.size++;
+        this.songNames[row] = this.arena.add(songName);
+
+        // Write the artist to the arena the first time it is seen, then link the row after its last row
+        byte[] bytes = StringArena.encode(artist);
+        int hash = SongIndex.foldCase(artist).hashCode();
+        int artistNumber = this.findArtist(bytes, hash);
+        if (artistNumber == NONE) {
+            artistNumber = this.addArtist(bytes, hash, row);
+        } else {
+            this.nextArtistRows[this.lastArtistRows[artistNumber]] = row;
+        }
+        this.lastArtistRows[artistNumber] = row;
+        this.artists[row] = this.artistAddresses[artistNumber];
+        this.nextArtistRows[row] = NONE;
+        return row;
+    }
+
+    /**
+     * Compares the song names of two rows by their UTF-8 bytes, without decoding them.
+     *
+     * @param a the first row
+     * @param b the second row
+     * @return a negative number, zero, or a positive number if the first song name is less than, equal to, or
+     * greater than the second song name
+     */
+    public int compareSongNames(int a, int b) {
+        this.checkRow(a);
+        this.checkRow(b);
+        return this.arena.compare(this.songNames[a], this.songNames[b]);
+    }
+
+    /**
+     * Finds the rows of the songs by an artist, ignoring case.
+     * <p>
+     * Every case of the artist hashes to the same slots of the artist table, so only those artists are matched
+     * against the bytes of the query, and only the rows linked from them are visited.
+     *
+     * @param artist the artist to find
+     * @return the rows of the artist in ascending order
+     */
+    public IntList rowsOf(String artist) {
+        byte[] query = StringArena.encode(artist);
+        int hash = SongIndex.foldCase(artist).hashCode();
+        IntList rows = new IntList();
+        int mask = this.artistTable.length - 1;
+        for (int slot = spread(hash) & mask; this.artistTable[slot] != 0; slot = (slot + 1) & mask) {
+            int artistNumber = this.artistTable[slot] - 1;
+            if (this.artistHashes[artistNumber] != hash
+                    || !this.arena.equalsIgnoreCase(this.artistAddresses[artistNumber], query)) {
+                continue;
+            }
+
+            // Merge the rows of each case of the artist into the rows found so far
+            IntList merged = new IntList();
+            int i = 0;
+            for (int row = this.firstArtistRows[artistNumber]; row != NONE; row = this.nextArtistRows[row]) {
+                while (i < rows.size() && rows.get(i) < row) {
+                    merged.add(rows.get(i++));
+                }
+                merged.add(row);
+            }
+            while (i < rows.size()) {
+                merged.add(rows.get(i++));
+            }
+            rows = merged;
+        }
+        return rows;
+    }
+
+    /**
+     * Copies the library into the two-dimensional array used by {@link MusicLibrary}.
+     *
+     * @return the two-dimensional array containing songs and artists
+     */
+    public String[][] toLibrary() {
+        String[][] library = new String[this.size][];
+        for (int row = 0; row < this.size; row++) {
+            library[row] = new String[]{this.getSongName(row), this.getArtist(row)};
+        }
+        return library;
+    }
+
+    // Finds the number of the artist with exactly the same bytes, otherwise NONE
+    private int findArtist(byte[] bytes, int hash) {
+        int mask = this.artistTable.length - 1;
+        for (int slot = spread(hash) & mask; this.artistTable[slot] != 0; slot = (slot + 1) & mask) {
+            int artistNumber = this.artistTable[slot] - 1;
+            if (this.artistHashes[artistNumber] == hash && this.arena.equals(this.artistAddresses[artistNumber], bytes)) {
+                return artistNumber;
+            }
+        }
+        return NONE;
+    }
+
+    // Writes a new artist to the arena and the artist table, growing the table once it is half full
+    private int addArtist(byte[] bytes, int hash, int firstRow) {
+        int artistNumber = this.artistCount++;
+        if (artistNumber == this.artistAddresses.length) {
+            this.artistAddresses = Arrays.copyOf(this.artistAddresses, artistNumber * 2);
+            this.artistHashes = Arrays.copyOf(this.artistHashes, artistNumber * 2);
+            this.firstArtistRows = Arrays.copyOf(this.firstArtistRows, artistNumber * 2);
+            this.lastArtistRows = Arrays.copyOf(this.lastArtistRows, artistNumber * 2);
+        }
+        this.artistAddresses[artistNumber] = this.arena.add(bytes);
+        this.artistHashes[artistNumber] = hash;
+        this.firstArtistRows[artistNumber] = firstRow;
+
+        if (this.artistCount * 2 > this.artistTable.length) {
+            this.artistTable = new int[this.artistTable.length * 2];
+            for (int i = 0; i < this.artistCount; i++) {
+                this.putArtist(i);
+            }
+        } else {
+            this.putArtist(artistNumber);
+        }
+        return artistNumber;
+    }
+
+    // Puts an artist number in the first free slot from the slot of its hash
+    private void putArtist(int artistNumber) {
+        int mask = this.artistTable.length - 1;
+        int slot = spread(this.artistHashes[artistNumber]) & mask;
+        while (this.artistTable[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        this.artistTable[slot] = artistNumber + 1;
+    }
+
+    // Mixes the high bits of a hash code into the low bits used to pick a slot
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    // Throws an exception if a row is not in the library
+    private void checkRow(int row) {
+        if (row < 0 || row >= this.size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for length " + this.size);
+        }
+    }
+}
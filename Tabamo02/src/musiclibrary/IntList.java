@@ -0,0 +1,130 @@
+package musiclibrary;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive {@code int} values used to store row ids without boxing them into {@code Integer}s.
+ */
+public class IntList {
+    // Constants
+    private static final int INITIAL_CAPACITY = 4;
+
+    // Attributes
+    private int[] values;
+    private int size;
+
+    /**
+     * Creates a new empty {@code IntList}.
+     */
+    public IntList() {
+        this.values = new int[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    // Getters
+
+    /**
+     * @return the number of values in the list
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @param i the position of the value
+     * @return the value at the position
+     */
+    public int get(int i) {
+        if (i < 0 || i >= this.size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + this.size);
+        }
+        return this.values[i];
+    }
+
+    // Methods
+
+    /**
+     * Appends a value to the end of the list.
+     *
+     * @param value the value to append
+     */
+    public void add(int value) {
+        if (this.size == this.values.length) {
+            this.values = Arrays.copyOf(this.values, this.values.length * 2);
+        }
+        this.values[this.size++] = value;
+    }
+
+    /**
+     * Inserts a value at a position, shifting the later values to the right.
+     *
+     * @param position the position to insert the value at
+     * @param value    the value to insert
+     */
+    public void insert(int position, int value) {
+        if (position < 0 || position > this.size) {
+            throw new IndexOutOfBoundsException("Index " + position + " out of bounds for length " + this.size);
+        }
+        this.add(0);
+        System.arraycopy(this.values, position, this.values, position + 1, this.size - 1 - position);
+        this.values[position] = value;
+    }
+
+    /**
+     * Removes the value at a position, shifting the later values to the left.
+     *
+     * @param position the position of the value to remove
+     */
+    public void removeAt(int position) {
+        if (position < 0 || position >= this.size) {
+            throw new IndexOutOfBoundsException("Index " + position + " out of bounds for length " + this.size);
+        }
+        System.arraycopy(this.values, position + 1, this.values, position, this.size - 1 - position);
+        this.size--;
+    }
+
+    /**
+     * Inserts a value into a list that is sorted in ascending order, keeping it sorted.
+     *
+     * @param value the value to insert
+     */
+    public void insertSorted(int value) {
+        int position = Arrays.binarySearch(this.values, 0, this.size, value);
+        if (position < 0) {
+            position = -(position + 1);
+        }
+        this.insert(position, value);
+    }
+
+    /**
+     * Removes a value from a list that is sorted in ascending order.
+     *
+     * @param value the value to remove
+     * @return true if the value was removed, otherwise false
+     */
+    public boolean removeSorted(int value) {
+        int position = Arrays.binarySearch(this.values, 0, this.size, value);
+        if (position < 0) {
+            return false;
+        }
+        this.removeAt(position);
+        return true;
+    }
+
+    /**
+     * Checks whether a list that is sorted in ascending order contains a value.
+     *
+     * @param value the value to check for
+     * @return true if the value is in the list, otherwise false
+     */
+    public boolean containsSorted(int value) {
+        return Arrays.binarySearch(this.values, 0, this.size, value) >= 0;
+    }
+
+    /**
+     * Removes every value from the list.
+     */
+    public void clear() {
+        this.size = 0;
+    }
+}
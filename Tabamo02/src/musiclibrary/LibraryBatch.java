@@ -0,0 +1,68 @@
+package musiclibrary;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Runs a stream of {@link LibraryCommands} against a {@link SongStore} without prompts, such as a command file
+ * or a recorded workload piped into standard input.
+ * <p>
+ * Responses are collected in a buffer and written in large blocks instead of once per command.
+ */
+public class LibraryBatch {
+    // Constants
+    private static final int FLUSH_SIZE = 1 << 16; // 64 KiB
+
+    // Attributes
+    private long commands;
+    private long nanos;
+
+    // Getters
+
+    /**
+     * @return the number of commands that were run
+     */
+    public long getCommands() {
+        return this.commands;
+    }
+
+    /**
+     * @return the number of commands run per second
+     */
+    public double getCommandsPerSecond() {
+        return (this.nanos == 0) ? 0 : this.commands / (this.nanos / 1e9);
+    }
+
+    // Methods
+
+    /**
+     * Runs every command of a stream until the stream ends or a {@code QUIT} command is reached.
+     * Blank lines and lines starting with {@code #} are skipped.
+     *
+     * @param in    the stream of commands, one per line
+     * @param out   the writer to write the responses to
+     * @param store the store to run the commands against
+     * @throws IOException if the commands cannot be read or the responses cannot be written
+     */
+    public void run(BufferedReader in, Writer out, SongStore store) throws IOException {
+        long start = System.nanoTime();
+        StringBuilder response = new StringBuilder(FLUSH_SIZE * 2);
+        String line;
+        boolean open = true;
+        while (open && (line = in.readLine()) != null) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            open = LibraryCommands.execute(line, store, response);
+            this.commands++;
+            if (response.length() >= FLUSH_SIZE) {
+                out.append(response);
+                response.setLength(0);
+            }
+        }
+        out.append(response);
+        out.flush();
+        this.nanos += System.nanoTime() - start;
+    }
+}
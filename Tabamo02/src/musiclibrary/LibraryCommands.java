@@ -0,0 +1,160 @@
+package musiclibrary;
+
+/**
+ * Runs the text commands that drive a {@link SongStore} without prompts. Each command is one line and its response
+ * is appended to a buffer.
+ * <pre>
+ * ADD &lt;song name&gt;|&lt;artist&gt;          -&gt; OK &lt;row&gt; | DUPLICATE
+ * UPDATE &lt;row&gt; &lt;song name&gt;|&lt;artist&gt; -&gt; OK | DUPLICATE | NOT_FOUND
+ * LIST [offset] [limit]              -&gt; ROWS &lt;n&gt;, then n lines of &lt;row&gt;\t&lt;song name&gt;\t&lt;artist&gt;
+ * ARTIST &lt;artist&gt;                    -&gt; ROWS &lt;n&gt;, then n lines of &lt;row&gt;\t&lt;song name&gt;\t&lt;artist&gt;
+ * QUIT                               -&gt; BYE
+ * </pre>
+ * A response lists at most 1,000 rows, so {@code LIST} limits above that are lowered and {@code ARTIST} only
+ * lists the first 1,000 rows of an artist. Malformed commands, and songs whose song name or artist is too long
+ * to be saved, get an {@code ERROR <message>} response.
+ */
+public class LibraryCommands {
+    // Constants
+    private static final int DEFAULT_LIST_LIMIT = 100;
+    private static final int MAX_ROWS = 1_000; // The most rows a single response lists
+
+    // Methods
+
+    /**
+     * Runs a command against a store and appends its response.
+     *
+     * @param line  the command to run
+     * @param store the store to run the command against
+     * @param out   the buffer to append the response to, ending with a newline
+     * @return false if the command was {@code QUIT}, otherwise true
+     */
+    public static boolean execute(String line, SongStore store, StringBuilder out) {
+        line = line.trim();
+        int space = line.indexOf(' ');
+        String command = ((space == -1) ? line : line.substring(0, space)).toUpperCase();
+        String argument = (space == -1) ? "" : line.substring(space + 1).trim();
+
+        switch (command) {
+            case "ADD":
+                add(argument, store, out);
+                return true;
+            case "UPDATE":
+                update(argument, store, out);
+                return true;
+            case "LIST":
+                list(argument, store, out);
+                return true;
+            case "ARTIST":
+                artist(argument, store, out);
+                return true;
+            case "QUIT":
+                out.append("BYE\n");
+                return false;
+            case "":
+                return true;
+            default:
+                out.append("ERROR Unknown command ").append(command).append('\n');
+                return true;
+        }
+    }
+
+    // ADD <song name>|<artist>
+    private static void add(String argument, SongStore store, StringBuilder out) {
+        String[] song = parseSong(argument, out);
+        if (song == null) {
+            return;
+        }
+        int row = store.add(song[0], song[1]);
+        if (row == -1) {
+            out.append("DUPLICATE\n");
+        } else {
+            out.append("OK ").append(row).append('\n');
+        }
+    }
+
+    // UPDATE <row> <song name>|<artist>
+    private static void update(String argument, SongStore store, StringBuilder out) {
+        int space = argument.indexOf(' ');
+        int row;
+        try {
+            row = Integer.parseInt((space == -1) ? argument : argument.substring(0, space));
+        } catch (NumberFormatException e) {
+            out.append("ERROR Expected UPDATE <row> <song name>|<artist>\n");
+            return;
+        }
+        String[] song = parseSong((space == -1) ? "" : argument.substring(space + 1), out);
+        if (song == null) {
+            return;
+        }
+        if (row < 0 || row >= store.snapshot().size()) {
+            out.append("NOT_FOUND\n");
+        } else if (store.update(row, song[0], song[1])) {
+            out.append("OK\n");
+        } else {
+            out.append("DUPLICATE\n");
+        }
+    }
+
+    // LIST [offset] [limit]
+    private static void list(String argument, SongStore store, StringBuilder out) {
+        int offset = 0;
+        int limit = DEFAULT_LIST_LIMIT;
+        try {
+            String[] numbers = argument.isEmpty() ? new String[0] : argument.split("\\s+");
+            if (numbers.length > 0) {
+                offset = Math.max(0, Integer.parseInt(numbers[0]));
+            }
+            if (numbers.length > 1) {
+                limit = Math.min(MAX_ROWS, Math.max(0, Integer.parseInt(numbers[1])));
+            }
+        } catch (NumberFormatException e) {
+            out.append("ERROR Expected LIST [offset] [limit]\n");
+            return;
+        }
+
+        // Read every row from the same snapshot
+        SongStore.Snapshot snapshot = store.snapshot();
+        int end = (int) Math.min((long) offset + limit, snapshot.size());
+        out.append("ROWS ").append(Math.max(0, end - offset)).append('\n');
+        for (int row = offset; row < end; row++) {
+            appendRow(snapshot, row, out);
+        }
+    }
+
+    // ARTIST <artist>
+    private static void artist(String argument, SongStore store, StringBuilder out) {
+        if (argument.isEmpty()) {
+            out.append("ERROR Expected ARTIST <artist>\n");
+            return;
+        }
+        SongStore.Snapshot snapshot = store.snapshot();
+        IntList rows = snapshot.rowsOf(argument);
+        int count = Math.min(MAX_ROWS, rows.size());
+        out.append("ROWS ").append(count).append('\n');
+        for (int i = 0; i < count; i++) {
+            appendRow(snapshot, rows.get(i), out);
+        }
+    }
+
+    // Splits "<song name>|<artist>" into a trimmed song name and artist, or appends an error and returns null
+    private static String[] parseSong(String argument, StringBuilder out) {
+        int bar = argument.indexOf('|');
+        String songName = (bar == -1) ? "" : argument.substring(0, bar).trim();
+        String artist = (bar == -1) ? "" : argument.substring(bar + 1).trim();
+        if (songName.isEmpty() || artist.isEmpty()) {
+            out.append("ERROR Expected <song name>|<artist>\n");
+            return null;
+        }
+        if (!SongJournal.canSave(songName) || !SongJournal.canSave(artist)) {
+            out.append("ERROR The song name or artist is too long\n");
+            return null;
+        }
+        return new String[]{songName, artist};
+    }
+
+    // Appends a row as <row>\t<song name>\t<artist>
+    private static void appendRow(SongStore.Snapshot snapshot, int row, StringBuilder out) {
+        out.append(row).append('\t').append(snapshot.getSongName(row)).append('\t').append(snapshot.getArtist(row)).append('\n');
+    }
+}
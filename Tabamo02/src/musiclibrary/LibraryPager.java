@@ -0,0 +1,126 @@
+package musiclibrary;
+
+/**
+ * A cursor over the rows of a music library that shows one page of songs at a time.
+ * <p>
+ * A {@code LibraryPager} can page through the whole library or only through the rows of an artist. Only the rows of
+ * the current page are read when a page is printed, and the column widths are measured from those rows only.
+ */
+public class LibraryPager {
+    // Constants
+    private static final int STRING_PADDING = 4;
+    private static final String SONG_HEADER = "SONG NAME    ";
+    private static final String ARTIST_HEADER = "ARTIST    ";
+
+    // Attributes
+    private final String[][] library;
+    private final IntList rows; // null when paging through the whole library
+    private final int pageSize;
+    private int page;
+
+    /**
+     * Creates a new instance of a {@code LibraryPager} that starts at the first page.
+     *
+     * @param library  the two-dimensional array containing songs and artists
+     * @param rows     the rows to page through in order, or null to page through the whole library
+     * @param pageSize the number of songs on a page
+     */
+    public LibraryPager(String[][] library, IntList rows, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("The page size must be positive.");
+        }
+        this.library = library;
+        this.rows = rows;
+        this.pageSize = pageSize;
+        this.page = 0;
+    }
+
+    // Getters
+
+    /**
+     * @return the number of songs that can be paged through
+     */
+    public int getSongCount() {
+        return (this.rows == null) ? this.library.length : this.rows.size();
+    }
+
+    /**
+     * @return the number of pages, which is at least 1
+     */
+    public int getPageCount() {
+        return Math.max(1, (this.getSongCount() + this.pageSize - 1) / this.pageSize);
+    }
+
+    /**
+     * @return the current page, starting from 1
+     */
+    public int getPage() {
+        return this.page + 1;
+    }
+
+    // Methods
+
+    /**
+     * Moves to the next page if there is one.
+     *
+     * @return true if the page changed, otherwise false
+     */
+    public boolean next() {
+        return this.jump(this.page + 2);
+    }
+
+    /**
+     * Moves to the previous page if there is one.
+     *
+     * @return true if the page changed, otherwise false
+     */
+    public boolean previous() {
+        return this.jump(this.page);
+    }
+
+    /**
+     * Moves to a page.
+     *
+     * @param page the page to move to, starting from 1
+     * @return true if the page exists, otherwise false
+     */
+    public boolean jump(int page) {
+        if (page < 1 || page > this.getPageCount()) {
+            return false;
+        }
+        this.page = page - 1;
+        return true;
+    }
+
+    /**
+     * Prints the songs of the current page in a 2-column view followed by the page number.
+     */
+    public void printPage() {
+        int start = this.page * this.pageSize;
+        int end = Math.min(start + this.pageSize, this.getSongCount());
+
+        // Measure the columns of the visible rows only
+        int songMaxLen = SONG_HEADER.length();
+        int artistMaxLen = ARTIST_HEADER.length();
+        for (int i = start; i < end; i++) {
+            String[] row = this.library[this.rowAt(i)];
+            songMaxLen = Math.max(songMaxLen, row[0].length() + STRING_PADDING);
+            artistMaxLen = Math.max(artistMaxLen, row[1].length() + STRING_PADDING);
+        }
+
+        // Print the header and the rows of the page
+        TableRenderer renderer = new TableRenderer(System.out, System.out.charset());
+        renderer.row(SONG_HEADER, songMaxLen, ARTIST_HEADER, artistMaxLen);
+        for (int i = start; i < end; i++) {
+            String[] row = this.library[this.rowAt(i)];
+            renderer.row(row[0], songMaxLen, row[1], artistMaxLen);
+        }
+        renderer.flush();
+        System.out.printf("Page %d of %d (%d songs)\n", this.getPage(), this.getPageCount(), this.getSongCount());
+    }
+
+    // Gets the library row of the i-th song being paged through
+    private int rowAt(int i) {
+        return (this.rows == null) ? i : this.rows.get(i);
+    }
+}
@@ -0,0 +1,153 @@
+package musiclibrary;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * A local network service that lets other processes add, update, and list the songs of a {@link SongStore}
+ * using the line-based commands of {@link LibraryCommands}.
+ * <p>
+ * Every connection is served by its own virtual thread, so thousands of mostly idle clients are cheap.
+ * The service only listens on the loopback address.
+ * <p>
+ * If the store saves its writes, the writes of a connection are saved before their responses are sent,
+ * so a client that has read {@code OK} knows that its song survives a crash.
+ */
+public class LibraryServer implements Closeable {
+    // Constants
+    private static final int DEFAULT_PORT = 5522;
+    private static final String DATA_DIRECTORY = "musiclibrary-data";
+
+    // Attributes
+    private final SongStore store;
+    private final ServerSocket serverSocket;
+    private final Thread acceptThread;
+
+    /**
+     * Creates a new instance of a {@code LibraryServer} and starts accepting connections.
+     *
+     * @param store the store to serve
+     * @param port  the port to listen on, or 0 to pick a free port
+     * @throws IOException if the port cannot be opened
+     */
+    public LibraryServer(SongStore store, int port) throws IOException {
+        this.store = store;
+        this.serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        this.acceptThread = Thread.ofPlatform().name("library-server-accept").start(this::acceptConnections);
+    }
+
+    // Getter
+
+    /**
+     * @return the port that the service listens on
+     */
+    public int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    // Methods
+
+    /**
+     * Stops accepting connections. Connections that are already open are served until their clients disconnect.
+     *
+     * @throws IOException if the server socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.serverSocket.close();
+        try {
+            this.acceptThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Accepts connections until the server socket is closed, starting a virtual thread for each
+    private void acceptConnections() {
+        while (!this.serverSocket.isClosed()) {
+            try {
+                Socket socket = this.serverSocket.accept();
+                Thread.ofVirtual().name("library-connection").start(() -> this.serve(socket));
+            } catch (SocketException e) {
+                // The server socket was closed
+                return;
+            } catch (IOException e) {
+                System.out.println("Could not accept a connection: " + e.getMessage());
+            }
+        }
+    }
+
+    // Runs the commands of one connection until the client quits or disconnects
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            StringBuilder response = new StringBuilder();
+            String line;
+            boolean open = true;
+            while (open && (line = in.readLine()) != null) {
+                open = LibraryCommands.execute(line, this.store, response);
+                out.append(response);
+                response.setLength(0);
+
+                // Only save and flush once every pipelined command that has arrived has been answered
+                if (!in.ready()) {
+                    this.store.save();
+                    out.flush();
+                }
+            }
+            this.store.save();
+            out.flush();
+        } catch (IOException e) {
+            // The client disconnected
+        }
+    }
+
+    /**
+     * Starts the service with the library saved in a directory, saving every change to it.
+     * <p>
+     * Usage: {@code java musiclibrary.LibraryServer [port] [directory]}, where port defaults to 5522
+     * and directory defaults to {@code musiclibrary-data}, the same directory as {@link MusicLibrary}.
+     *
+     * @param args the array of command line arguments
+     * @throws IOException if the port cannot be opened
+     */
+    public static void main(String[] args) throws IOException {
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Path dataDirectory = Path.of((args.length > 1) ? args[1] : DATA_DIRECTORY);
+
+        // Recover the saved library
+        String[][] library = new String[0][0];
+        SongJournal journal;
+        try {
+            journal = new SongJournal(dataDirectory, SongJournal.DEFAULT_COMPACT_THRESHOLD);
+            library = journal.recover();
+        } catch (IOException e) {
+            System.out.println("Could not open the saved library, changes will not be saved: " + e.getMessage());
+            journal = null;
+        }
+        SongStore store = new SongStore(library, journal);
+
+        LibraryServer server = new LibraryServer(store, port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+                store.close();
+            } catch (IOException e) {
+                System.out.println("Could not save the library: " + e.getMessage());
+            }
+        }));
+        System.out.printf("Music Library service listening on port %d with %,d songs.\n", server.getPort(), library.length);
+    }
+}
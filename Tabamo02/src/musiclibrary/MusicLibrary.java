@@ -11,8 +11,19 @@
 
 package musiclibrary;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.InputMismatchException;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -27,39 +38,132 @@ public class MusicLibrary {
     private static final int SONG_COL = 0;
     private static final int ARTIST_COL = 1;
     private static final int STRING_PADDING = 4;
+    private static final int PAGE_SIZE = 10;
+    private static final int SEARCH_LIMIT = 50;
+    private static final String DATA_DIRECTORY = "musiclibrary-data";
+    private static final String BATCH_OPTION = "--batch";
+    private static final int BATCH_BUFFER_SIZE = 1 << 16;
+
+    // Hash index of the rows in the library, used for duplicate checks and exact lookups
+    private static final SongIndex songIndex = new SongIndex();
+
+    // Secondary index of the rows of each artist, used for the artist views
+    private static final ArtistIndex artistIndex = new ArtistIndex();
+
+    // Incrementally maintained column widths, used to align the views without scanning the library
+    private static final ColumnWidths columnWidths = new ColumnWidths();
+
+    // Prefix and substring search index of the song names
+    private static final TitleSearchIndex titleIndex = new TitleSearchIndex();
+
+    // Typo-tolerant suggestions of artists and song names
+    private static final SongSuggester suggester = new SongSuggester();
+
+    // Number of songs of each artist, used for the artist report
+    private static final ArtistStats artistStats = new ArtistStats();
+
+    // Cached sorted orderings of the library for the sorted views
+    private static final SortedOrder songNameOrder = SortedOrder.bySongName();
+    private static final SortedOrder artistOrder = SortedOrder.byArtist();
+
+    // Journal that saves the library between sessions, or null if the library is not being saved
+    private static SongJournal journal = null;
+
+    // The library that the indexes describe
+    private static String[][] indexedLibrary = null;
+
+    // Makes sure the indexes describe the library, rebuilding them if a different library array is passed in
+    // The indexes only follow the changes made through MusicLibrary, so a row that other code changes in place
+    // is not noticed until a different library array is passed in
+    private static void syncIndexes(String[][] library) {
+        if (library == indexedLibrary) {
+            return;
+        }
+        songIndex.rebuild(library);
+        artistIndex.rebuild(library);
+        columnWidths.rebuild(library);
+        titleIndex.rebuild(library);
+        suggester.rebuild(library);
+        artistStats.rebuild(library);
+        songNameOrder.rebuild(library);
+        artistOrder.rebuild(library);
+        indexedLibrary = library;
+    }
+
+    // Records an added song in the journal
+    // The song name and artist are checked with SongJournal.canSave() before the library is changed
+    private static void journalAdd(String songName, String artist) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.appendAdd(songName, artist);
+        } catch (IOException e) {
+            MusicLibrary.stopSaving(e);
+        }
+    }
+
+    // Records an updated song in the journal
+    private static void journalUpdate(int row, String songName, String artist) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.appendUpdate(row, songName, artist);
+        } catch (IOException e) {
+            MusicLibrary.stopSaving(e);
+        }
+    }
+
+    // Commits the changes recorded in the journal and takes a snapshot once the journal is long enough
+    private static void saveChanges(String[][] library, boolean forceSnapshot) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.commit();
+            if (forceSnapshot || journal.shouldCompact()) {
+                journal.snapshot(library);
+            }
+        } catch (IOException e) {
+            MusicLibrary.stopSaving(e);
+        }
+    }
+
+    // Stops saving the library after a change could not be saved
+    // The journal would be missing the change, so the changes after it would be replayed onto the wrong rows
+    private static void stopSaving(IOException e) {
+        System.out.println("Could not save the library, changes will no longer be saved: " + e.getMessage());
+        try {
+            journal.discard();
+        } catch (IOException closeError) {
+            System.out.println("Could not close the saved library: " + closeError.getMessage());
+        }
+        journal = null;
+    }
+
+    // Prints the suggestions for a mistyped artist or song name, if there are any
+    private static void printSuggestions(List<String> suggestions) {
+        if (!suggestions.isEmpty()) {
+            System.out.println("Did you mean: " + String.join(", ", suggestions) + "?");
+        }
+    }
 
     // Used to find the longest length song names and artists in a library + string padding
     private static int[] findMaxStringLengths(String[][] library, String artistFilter) {
         // Initialize an array of two values
         int[] maxStringLengths = new int[2];
 
-        // Find the longest length songName String in the array
-        int max = 0;
-        for (String[] rows : library) {
-            // If there is a filter, if the artist of the row is not the artist of the filter,
-            // then don't consider them for measuring the max length String.
-            if (artistFilter != null) {
-                if (!rows[ARTIST_COL].equalsIgnoreCase(artistFilter)) {
-                    continue;
-                }
-            }
-            if (rows[SONG_COL].length() > max) {
-                max = rows[SONG_COL].length();
-            }
-        }
-        // Add additional padding to the length
-        maxStringLengths[SONG_COL] = max + STRING_PADDING;
+        // Get the longest length songName and artist Strings from the tracked column widths
+        // If there is a filter, only the song names of the artist of the filter are considered
+        MusicLibrary.syncIndexes(library);
+        int songMax = (artistFilter != null)
+                ? columnWidths.maxSongNameLength(artistFilter, library, artistIndex)
+                : columnWidths.maxSongNameLength();
 
-        // Find the longest length artist String in the array
-        max = 0;
-        for (String[] rows : library) {
-            // If we find a length that is greater than our max, set the max to that length
-            if (rows[ARTIST_COL].length() > max) {
-                max = rows[ARTIST_COL].length();
-            }
-        }
-        // Add additional padding to the length
-        maxStringLengths[ARTIST_COL] = max + STRING_PADDING;
+        // Add additional padding to the lengths
+        maxStringLengths[SONG_COL] = songMax + STRING_PADDING;
+        maxStringLengths[ARTIST_COL] = columnWidths.maxArtistLength() + STRING_PADDING;
 
         return maxStringLengths;
     }
@@ -75,6 +179,11 @@ public class MusicLibrary {
             System.out.println("2 | View Artist's Songs");
             System.out.println("3 | Add Song");
             System.out.println("4 | Update Song");
+            System.out.println("5 | Browse Library");
+            System.out.println("6 | Import Songs");
+            System.out.println("7 | Search Songs");
+            System.out.println("8 | Artist Report");
+            System.out.println("9 | Batch Update");
             System.out.println("0 | Exit");
             System.out.print("Choice: ");
             try {
@@ -128,15 +237,12 @@ public class MusicLibrary {
         // Print header
         System.out.println(header);
 
-        // Print the songs and artists using the String.format() method
+        // Print the songs and artists using a TableRenderer that writes the rows in large blocks
+        TableRenderer renderer = new TableRenderer(System.out, System.out.charset());
         for (String[] row : library) {
-            String songName = row[SONG_COL];
-            String artist = row[ARTIST_COL];
-            String rowDetails = "";
-            rowDetails += String.format("%-" + songMaxLen + "s", songName);
-            rowDetails += String.format("%-" + artistMaxLen + "s", artist);
-            System.out.println(rowDetails);
+            renderer.row(row[SONG_COL], songMaxLen, row[ARTIST_COL], artistMaxLen);
         }
+        renderer.flush();
     }
 
     /**
@@ -185,33 +291,200 @@ public class MusicLibrary {
         header += String.format("%-" + artistMaxLen + "s", "ARTIST    ");
 
 
-        // Print the songs and artists
-        int count = 0;
-        for (String[] row : library) {
-            String songName = row[SONG_COL];
-            String artist = row[ARTIST_COL];
+        // Get the rows of the artist from the artist index
+        // If there are no rows, then there are no songs for the input artist
+        MusicLibrary.syncIndexes(library);
+        IntList artistRows = artistIndex.rowsOf(artistName);
+        if (artistRows.size() == 0) {
+            System.out.println("No songs exist for that artist.");
+            MusicLibrary.printSuggestions(suggester.suggestArtists(artistName));
+            return;
+        }
+
+        // Print the header and the songs and artists
+        System.out.println(header);
+        TableRenderer renderer = new TableRenderer(System.out, System.out.charset());
+        for (int i = 0; i < artistRows.size(); i++) {
+            String[] row = library[artistRows.get(i)];
+            renderer.row(row[SONG_COL], songMaxLen, row[ARTIST_COL], artistMaxLen);
+        }
+        renderer.flush();
+    }
+
+    /**
+     * Lets the user page through the music library, or only through the songs of an artist,
+     * one page at a time.
+     *
+     * @param library the two-dimensional array containing songs and artists
+     * @param sc      the scanner to read from
+     */
+    public static void browseLibrary(String[][] library, Scanner sc) {
+        // If the music library is empty, then there are no songs to display.
+        if (library.length == 0) {
+            System.out.println("No songs saved. Please add songs!");
+            return;
+        }
 
-            // If the artist name does not match the input artist name, then skip to the next song
-            if (!artist.equalsIgnoreCase(artistName)) { // Usage of equalsIgnoreCase() to ignore case sensitivity
-                continue;
+        // Ask for an artist to filter by, an empty input browses the whole library
+        System.out.print("Enter artist name (Enter nothing to browse all songs): ");
+        String artistName = sc.nextLine().trim();
+
+        // Only the rows of the artist are paged through if there is a filter
+        // Otherwise, the whole library can be paged through in a sorted order
+        IntList rows = null;
+        MusicLibrary.syncIndexes(library);
+        if (!artistName.isEmpty()) {
+            rows = artistIndex.rowsOf(artistName);
+            if (rows.size() == 0) {
+                System.out.println("No songs exist for that artist.");
+                MusicLibrary.printSuggestions(suggester.suggestArtists(artistName));
+                return;
+            }
+        } else {
+            System.out.print("Sort by [S]ong name or [A]rtist (Enter nothing to keep the library order): ");
+            String sortChoice = sc.nextLine().trim().toUpperCase();
+            if (sortChoice.equals("S")) {
+                rows = songNameOrder.rows(library);
+            } else if (sortChoice.equals("A")) {
+                rows = artistOrder.rows(library);
             }
+        }
+        LibraryPager pager = new LibraryPager(library, rows, PAGE_SIZE);
 
-            // Print header if a song exists
-            if (count == 0) {
-                System.out.println(header);
+        // Print a page and ask where to go next until the user quits
+        String command;
+        do {
+            System.out.println();
+            pager.printPage();
+            System.out.print("[N]ext, [P]revious, [J]ump to page, [Q]uit: ");
+            command = sc.nextLine().trim().toUpperCase();
+            switch (command) {
+                case "N":
+                    if (!pager.next()) {
+                        System.out.println("This is the last page.");
+                    }
+                    break;
+                case "P":
+                    if (!pager.previous()) {
+                        System.out.println("This is the first page.");
+                    }
+                    break;
+                case "J":
+                    System.out.print("Enter page number: ");
+                    try {
+                        if (!pager.jump(Integer.parseInt(sc.nextLine().trim()))) {
+                            System.out.println("That page does not exist.");
+                        }
+                    } catch (NumberFormatException e) {
+                        System.out.println("Please enter a valid number.");
+                    }
+                    break;
+                case "Q":
+                    break;
+                default:
+                    System.out.println("Please enter a valid choice.");
+                    break;
+            }
+        } while (!command.equals("Q"));
+    }
+
+    /**
+     * Prints the songs whose names start with or contain the text entered by the user, ignoring case.
+     * Songs whose names start with the text are listed first.
+     *
+     * @param library the two-dimensional array containing songs and artists
+     * @param sc      the scanner to read from
+     */
+    public static void searchSongs(String[][] library, Scanner sc) {
+        // If the music library is empty, then there are no songs to search.
+        if (library.length == 0) {
+            System.out.println("No songs saved. Please add songs!");
+            return;
+        }
+
+        // Ask for the text to search for
+        String query;
+        do {
+            System.out.print("Enter song name to search for: ");
+            query = sc.nextLine().trim();
+            if (query.isEmpty()) {
+                System.out.println("Please enter a song name.");
             }
 
-            // Update the count for every song from the artist
-            count++;
-            String rowDetails = "";
-            rowDetails += String.format("%-" + songMaxLen + "s", songName);
-            rowDetails += String.format("%-" + artistMaxLen + "s", artist);
-            System.out.println(rowDetails);
+        } while (query.isEmpty());
+
+        // Find the prefix matches first, then the other songs containing the query
+        MusicLibrary.syncIndexes(library);
+        IntList prefixRows = titleIndex.searchPrefix(query, SEARCH_LIMIT);
+        IntList substringRows = titleIndex.searchSubstring(query, library, SEARCH_LIMIT + prefixRows.size());
+        String prefixKey = SongIndex.foldCase(query);
+        IntList rows = new IntList();
+        for (int i = 0; i < prefixRows.size(); i++) {
+            rows.add(prefixRows.get(i));
+        }
+        for (int i = 0; i < substringRows.size() && rows.size() < SEARCH_LIMIT; i++) {
+            int row = substringRows.get(i);
+            if (!SongIndex.foldCase(library[row][SONG_COL]).startsWith(prefixKey)) {
+                rows.add(row);
+            }
         }
 
-        // If count is 0, then there are no songs for the input artist
-        if (count == 0) {
-            System.out.println("No songs exist for that artist.");
+        if (rows.size() == 0) {
+            System.out.println("No songs match that search.");
+            MusicLibrary.printSuggestions(suggester.suggestSongNames(query));
+            return;
+        }
+
+        // Print the first page of the results
+        LibraryPager pager = new LibraryPager(library, rows, SEARCH_LIMIT);
+        pager.printPage();
+    }
+
+    /**
+     * Prints the artists with the most songs, up to a number of artists entered by the user.
+     *
+     * @param library the two-dimensional array containing songs and artists
+     * @param sc      the scanner to read from
+     */
+    public static void viewArtistReport(String[][] library, Scanner sc) {
+        // If the music library is empty, then there are no artists to report.
+        if (library.length == 0) {
+            System.out.println("No songs saved. Please add songs!");
+            return;
+        }
+
+        MusicLibrary.syncIndexes(library);
+        System.out.printf("The library has %d songs by %d artists.\n", library.length, artistStats.getArtistCount());
+
+        // Ask for the number of artists to show
+        int limit = 0;
+        do {
+            System.out.print("Enter the number of top artists to show: ");
+            String input = sc.nextLine().trim();
+            try {
+                limit = Integer.parseInt(input);
+            } catch (NumberFormatException e) {
+                limit = 0;
+            }
+            if (limit <= 0) {
+                System.out.println("Please enter a positive number.");
+            }
+
+        } while (limit <= 0);
+
+        // Show each artist with the spelling of their first song in the library
+        List<ArtistKey> topArtists = artistStats.topArtists(limit);
+        String[] artistNames = new String[topArtists.size()];
+        int artistMaxLen = "ARTIST    ".length();
+        for (int i = 0; i < topArtists.size(); i++) {
+            artistNames[i] = library[artistIndex.rowsOf(topArtists.get(i)).get(0)][ARTIST_COL];
+            artistMaxLen = Math.max(artistMaxLen, artistNames[i].length() + STRING_PADDING);
+        }
+
+        // Print the header and the artists with their number of songs
+        System.out.println(String.format("%-" + artistMaxLen + "s", "ARTIST    ") + "SONGS");
+        for (int i = 0; i < topArtists.size(); i++) {
+            System.out.println(String.format("%-" + artistMaxLen + "s", artistNames[i]) + artistStats.countOf(topArtists.get(i)));
         }
     }
 
@@ -232,7 +505,7 @@ public class MusicLibrary {
         // If the music library is empty, then initialize a 2d array with 1 row and 2 columns
         if (library.length == 0) {
             newLibrary = new String[1][MAX_COLUMNS];
-        } else if (library.length == MAX_SONGS) {
+        } else if (library.length >= MAX_SONGS) {
             System.out.println("Maximum number of songs have been added.");
             return library;
         }
@@ -249,30 +522,46 @@ public class MusicLibrary {
             songName = sc.nextLine().trim();
             if (songName.isEmpty()) {
                 System.out.println("Please enter a song name.");
+            } else if (!SongJournal.canSave(songName)) {
+                System.out.println("The song name is too long.");
             }
 
-        } while (songName.isEmpty());
+        } while (songName.isEmpty() || !SongJournal.canSave(songName));
 
         do {
             System.out.print("Enter song artist: ");
             songArtist = sc.nextLine().trim();
             if (songArtist.isEmpty()) {
                 System.out.println("Please enter a song artist.");
+            } else if (!SongJournal.canSave(songArtist)) {
+                System.out.println("The artist name is too long.");
             }
 
-        } while (songArtist.isEmpty());
+        } while (songArtist.isEmpty() || !SongJournal.canSave(songArtist));
 
         // If the song name already exists in the library and the artist name is the same, then print an error message
-        for (String[] row : library) {
-            if (row[SONG_COL].equals(songName) && row[ARTIST_COL].equalsIgnoreCase(songArtist)) {
-                System.out.println("Song already exists in the library.");
-                return library;
-            }
+        // The artist is only case-folded once for the duplicate check and every index
+        MusicLibrary.syncIndexes(library);
+        ArtistKey artistKey = ArtistKey.of(songArtist);
+        String songKey = SongIndex.key(songName, artistKey);
+        if (songIndex.contains(songKey)) {
+            System.out.println("Song already exists in the library.");
+            return library;
         }
 
         // Add the song and artist to the library
         newLibrary[newLibrary.length - 1][SONG_COL] = songName;
         newLibrary[newLibrary.length - 1][ARTIST_COL] = songArtist;
+        songIndex.add(songKey);
+        artistIndex.add(artistKey);
+        artistStats.add(artistKey);
+        columnWidths.add(songName, artistKey);
+        titleIndex.add(songName);
+        suggester.add(songName, songArtist);
+        songNameOrder.add(newLibrary);
+        artistOrder.add(newLibrary);
+        indexedLibrary = newLibrary;
+        MusicLibrary.journalAdd(songName, songArtist);
 
         System.out.println("Added the song to the library!");
 
@@ -280,6 +569,68 @@ public class MusicLibrary {
         return newLibrary;
     }
 
+    /**
+     * Allows the user to add songs in bulk from a CSV, TSV, or M3U file.
+     * Songs that already exist in the library or appear earlier in the file are skipped.
+     * <p>
+     * Unlike adding songs one at a time, importing songs is not limited to the maximum number of songs.
+     *
+     * @param library the two-dimensional array containing songs and artists
+     * @param sc      the scanner to read from
+     * @return the updated library
+     */
+    public static String[][] importSongs(String[][] library, Scanner sc) {
+        String fileName;
+
+        System.out.println("-- Import Songs -----------------------");
+
+        // Ask for the file to import
+        do {
+            System.out.print("Enter file path (.csv, .tsv, .m3u): ");
+            fileName = sc.nextLine().trim();
+            if (fileName.isEmpty()) {
+                System.out.println("Please enter a file path.");
+            }
+
+        } while (fileName.isEmpty());
+
+        // Read the songs of the file that are not in the library yet
+        SongImporter.Result result;
+        MusicLibrary.syncIndexes(library);
+        try {
+            result = SongImporter.read(Path.of(fileName), songIndex);
+        } catch (IOException | InvalidPathException e) {
+            System.out.println("Could not import the file: " + e.getMessage());
+            return library;
+        }
+
+        // Append the new songs to the library in one batch
+        String[][] newLibrary = Arrays.copyOf(library, library.length + result.getSongs().length);
+        for (String[] song : result.getSongs()) {
+            int row = songIndex.size();
+            newLibrary[row] = song;
+            ArtistKey artistKey = ArtistKey.of(song[ARTIST_COL]);
+            songIndex.add(SongIndex.key(song[SONG_COL], artistKey));
+            artistIndex.add(artistKey);
+            artistStats.add(artistKey);
+            columnWidths.add(song[SONG_COL], artistKey);
+            titleIndex.add(song[SONG_COL]);
+            suggester.add(song[SONG_COL], song[ARTIST_COL]);
+            MusicLibrary.journalAdd(song[SONG_COL], song[ARTIST_COL]);
+        }
+        // Sorting the orderings again once is cheaper than moving every imported song into place
+        songNameOrder.rebuild(newLibrary);
+        artistOrder.rebuild(newLibrary);
+        indexedLibrary = newLibrary;
+
+        System.out.printf("Imported %d songs (%d rows read, %d duplicates and %d invalid rows skipped, %.0f rows/s).\n",
+                result.getSongs().length, result.getRowsRead(), result.getDuplicates(), result.getMalformed(),
+                result.getRowsPerSecond());
+
+        // Return the new library
+        return newLibrary;
+    }
+
     // A method that asks the user for the song name and artist to update the library
     private static void updateSongDetails(String[][] library, int index, Scanner sc) {
         // Initialize song name and artist name
@@ -295,35 +646,234 @@ public class MusicLibrary {
             songName = sc.nextLine().trim();
             if (songName.isEmpty()) {
                 System.out.println("Please enter a song name.");
+            } else if (!SongJournal.canSave(songName)) {
+                System.out.println("The song name is too long.");
             }
 
-        } while (songName.isEmpty());
+        } while (songName.isEmpty() || !SongJournal.canSave(songName));
 
         do {
             System.out.print("Enter updated song artist (Enter '---' to keep): ");
             artistName = sc.nextLine().trim();
             if (artistName.isEmpty()) {
                 System.out.println("Please enter a song artist.");
+            } else if (!SongJournal.canSave(artistName)) {
+                System.out.println("The artist name is too long.");
             }
 
-        } while (artistName.isEmpty());
+        } while (artistName.isEmpty() || !SongJournal.canSave(artistName));
 
 
-        // If the song name already exists in the library and the artist name is the same, then print an error message
-        for (String[] row : library) {
-            if (row[SONG_COL].equals(songName) && row[ARTIST_COL].equalsIgnoreCase(artistName)) {
-                System.out.println("Song already exists in the library.");
-                return;
-            }
+        // If the input is "---", then retain the old information
+        String oldSongName = library[index][SONG_COL];
+        String oldArtistName = library[index][ARTIST_COL];
+        String newSongName = (songName.equals("---")) ? oldSongName : songName;
+        String newArtistName = (artistName.equals("---")) ? oldArtistName : artistName;
+        ArtistKey oldArtistKey = ArtistKey.of(oldArtistName);
+        ArtistKey newArtistKey = (artistName.equals("---")) ? oldArtistKey : ArtistKey.of(artistName);
+
+        // If another song already has the updated song name and artist, then print an error message
+        MusicLibrary.syncIndexes(library);
+        String newKey = SongIndex.key(newSongName, newArtistKey);
+        if (songIndex.hasOtherRow(newKey, index)) {
+            System.out.println("Song already exists in the library.");
+            return;
         }
 
         // Update the song and artist in the library
-        // If the input is "---", then retain the old information
-        library[index][SONG_COL] = (songName.equals("---")) ? library[index][SONG_COL] : songName;
-        library[index][ARTIST_COL] = (artistName.equals("---")) ? library[index][ARTIST_COL] : artistName;
+        library[index][SONG_COL] = newSongName;
+        library[index][ARTIST_COL] = newArtistName;
+        songIndex.update(index, SongIndex.key(oldSongName, oldArtistKey), newKey);
+        MusicLibrary.updateIndexes(library, index, oldSongName, oldArtistKey, newArtistKey);
+        MusicLibrary.journalUpdate(index, library[index][SONG_COL], library[index][ARTIST_COL]);
         System.out.println("Updated the song in the library!");
     }
 
+    // Updates every index except the song index after a row of the library was changed
+    private static void updateIndexes(String[][] library, int index, String oldSongName, ArtistKey oldArtistKey,
+                                      ArtistKey newArtistKey) {
+        String oldArtistName = oldArtistKey.getArtist();
+        artistIndex.update(index, oldArtistKey, newArtistKey);
+        artistStats.update(oldArtistKey, newArtistKey);
+        columnWidths.update(oldSongName, oldArtistKey, library[index][SONG_COL], newArtistKey);
+        titleIndex.update(index, oldSongName, library[index][SONG_COL]);
+        suggester.update(oldSongName, oldArtistName, library[index][SONG_COL], library[index][ARTIST_COL]);
+        songNameOrder.update(library, index, oldSongName, oldArtistName);
+        artistOrder.update(library, index, oldSongName, oldArtistName);
+    }
+
+    /**
+     * Checks a batch of edits against the library and applies all of them, or none of them if any edit would
+     * make a song a duplicate of another song or too long to be saved. The edits are saved as a single journal record.
+     *
+     * @param library the two-dimensional array containing songs and artists
+     * @param edits   the edits to apply
+     * @return -1 if the edits were applied, otherwise an edited row that would be a duplicate or too long
+     */
+    public static int applyEdits(String[][] library, SongEdits edits) {
+        MusicLibrary.syncIndexes(library);
+        int conflict = edits.findConflict(library, songIndex);
+        if (conflict != -1) {
+            return conflict;
+        }
+
+        // Remove every old key before putting any new key, so that rows can trade song names
+        int[] rows = edits.getRows();
+        String[] oldSongNames = new String[rows.length];
+        ArtistKey[] oldArtistKeys = new ArtistKey[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            oldSongNames[i] = library[rows[i]][SONG_COL];
+            oldArtistKeys[i] = ArtistKey.of(library[rows[i]][ARTIST_COL]);
+            songIndex.remove(rows[i], SongIndex.key(oldSongNames[i], oldArtistKeys[i]));
+        }
+
+        // Apply the edits one row at a time so that the other indexes stay consistent with the library
+        String[] newSongNames = new String[rows.length];
+        String[] newArtistNames = new String[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            int index = rows[i];
+            newSongNames[i] = edits.getSongName(library, index);
+            newArtistNames[i] = edits.getArtist(library, index);
+            library[index][SONG_COL] = newSongNames[i];
+            library[index][ARTIST_COL] = newArtistNames[i];
+            ArtistKey newArtistKey = ArtistKey.of(newArtistNames[i]);
+            songIndex.put(index, SongIndex.key(newSongNames[i], newArtistKey));
+            MusicLibrary.updateIndexes(library, index, oldSongNames[i], oldArtistKeys[i], newArtistKey);
+        }
+
+        if (journal != null && rows.length > 0) {
+            try {
+                journal.appendUpdates(rows, newSongNames, newArtistNames);
+            } catch (IOException e) {
+                MusicLibrary.stopSaving(e);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Allows the user to update many songs at once by renaming an artist, replacing text in the song names of
+     * an artist, or applying a file of edits. Either every song is updated or, if any song would become a
+     * duplicate, none of them are.
+     *
+     * @param library the two-dimensional array containing songs and artists
+     * @param sc      the scanner to read from
+     */
+    public static void batchUpdate(String[][] library, Scanner sc) {
+        // If the music library is empty, then there are no songs to update.
+        if (library.length == 0) {
+            System.out.println("No songs saved. Please add songs!");
+            return;
+        }
+
+        System.out.println("-- Batch Update -----------------------");
+        String choice;
+        do {
+            System.out.print("[R]ename an artist, replace [T]ext in song names, or [E]dit from a file: ");
+            choice = sc.nextLine().trim().toUpperCase();
+            if (!choice.equals("R") && !choice.equals("T") && !choice.equals("E")) {
+                System.out.println("Please enter R, T, or E.");
+            }
+
+        } while (!choice.equals("R") && !choice.equals("T") && !choice.equals("E"));
+
+        MusicLibrary.syncIndexes(library);
+        SongEdits edits = new SongEdits();
+        if (choice.equals("E")) {
+            // Each line of the file is: song name|artist|new song name|new artist, with '---' to keep a value
+            System.out.print("Enter file path: ");
+            String fileName = sc.nextLine().trim();
+            try {
+                for (String line : Files.readAllLines(Path.of(fileName), StandardCharsets.UTF_8)) {
+                    if (line.isBlank() || line.startsWith("#")) {
+                        continue;
+                    }
+                    String[] fields = line.split("\\|", -1);
+                    int row = (fields.length == 4) ? songIndex.find(SongIndex.key(fields[0].trim(), ArtistKey.of(fields[1].trim()))) : -1;
+                    if (row == -1) {
+                        System.out.println("No songs were updated, the song of this line was not found: " + line);
+                        return;
+                    }
+                    String newSongName = fields[2].trim();
+                    String newArtistName = fields[3].trim();
+                    edits.edit(row, (newSongName.isEmpty() || newSongName.equals("---")) ? null : newSongName,
+                            (newArtistName.isEmpty() || newArtistName.equals("---")) ? null : newArtistName);
+                }
+            } catch (IOException | InvalidPathException e) {
+                System.out.println("Could not read the file: " + e.getMessage());
+                return;
+            }
+        } else {
+            String artistName;
+            do {
+                System.out.print("Enter artist name: ");
+                artistName = sc.nextLine().trim();
+                if (artistName.isEmpty()) {
+                    System.out.println("Please enter an artist name.");
+                }
+
+            } while (artistName.isEmpty());
+            IntList artistRows = artistIndex.rowsOf(artistName);
+            if (artistRows.size() == 0) {
+                System.out.println("No songs exist for that artist.");
+                MusicLibrary.printSuggestions(suggester.suggestArtists(artistName));
+                return;
+            }
+
+            if (choice.equals("R")) {
+                String newArtistName;
+                do {
+                    System.out.print("Enter new artist name: ");
+                    newArtistName = sc.nextLine().trim();
+                    if (newArtistName.isEmpty()) {
+                        System.out.println("Please enter an artist name.");
+                    } else if (!SongJournal.canSave(newArtistName)) {
+                        System.out.println("The artist name is too long.");
+                    }
+
+                } while (newArtistName.isEmpty() || !SongJournal.canSave(newArtistName));
+                edits.renameArtist(artistRows, newArtistName);
+            } else {
+                String text;
+                do {
+                    System.out.print("Enter text to replace: ");
+                    text = sc.nextLine();
+                    if (text.isEmpty()) {
+                        System.out.println("Please enter the text to replace.");
+                    }
+
+                } while (text.isEmpty());
+                System.out.print("Enter replacement text: ");
+                String replacement = sc.nextLine();
+                for (int i = 0; i < artistRows.size(); i++) {
+                    String songName = library[artistRows.get(i)][SONG_COL];
+                    String newSongName = songName.replace(text, replacement).trim();
+                    if (!newSongName.equals(songName) && !newSongName.isEmpty()) {
+                        edits.retitle(artistRows.get(i), newSongName);
+                    }
+                }
+            }
+        }
+
+        if (edits.size() == 0) {
+            System.out.println("There are no songs to update.");
+            return;
+        }
+        int conflict = MusicLibrary.applyEdits(library, edits);
+        if (conflict != -1) {
+            String songName = edits.getSongName(library, conflict);
+            String artist = edits.getArtist(library, conflict);
+            if (!SongJournal.canSave(songName) || !SongJournal.canSave(artist)) {
+                System.out.println("No songs were updated, a song name or artist would be too long.");
+            } else {
+                System.out.printf("No songs were updated, \"%s\" by %s would already exist in the library.\n",
+                        songName, artist);
+            }
+            return;
+        }
+        System.out.printf("Updated %d songs in the library!\n", edits.size());
+    }
+
     /**
      * Allows the user to update a song's details given its song.
      * If there are multiple artists with the same song, then the artist is asked for clarification.
@@ -358,19 +908,18 @@ public class MusicLibrary {
 
         } while (songName.isEmpty());
 
-        // Count the number of times the song name appears in the library
-        int count = 0;
-        for (String[] row : library) {
-            if (row[SONG_COL].equals(songName)) {
-                count++;
-            }
-        }
+        // Count the number of times the song name appears in the library using the title index
+        MusicLibrary.syncIndexes(library);
+        IntList songRows = titleIndex.rowsWithSongName(songName, library);
+        int count = songRows.size();
         // If the song name does not exist in the library, then print an error message
         if (count == 0) {
             System.out.println("Song does not exist in the library.");
+            MusicLibrary.printSuggestions(suggester.suggestSongNames(songName));
             return;
         }
         // If the song name appears more than once in the library, then ask for the artist name
+        // and look up the exact song using the song index
         if (count > 1) {
             do {
                 System.out.print("Enter artist name: ");
@@ -380,43 +929,111 @@ public class MusicLibrary {
                 }
 
             } while (artistName.isEmpty());
+
+            int row = songIndex.find(SongIndex.key(songName, ArtistKey.of(artistName)));
+            if (row == -1) {
+                System.out.println("Song with that artist does not exist in the library.");
+            } else {
+                MusicLibrary.updateSongDetails(library, row, sc);
+            }
+            return;
         }
-        // If the song name appears only once in the library, then update the song details
-        else {
-            artistName = library[0][ARTIST_COL];
-        }
-        // Find the song in the library
-        for (int i = 0; i < library.length; i++) {
-            if (library[i][SONG_COL].equals(songName)) {
-                // If the song name appears more than once in the library, then check the artist name
-                if (count > 1) {
-                    if (library[i][ARTIST_COL].equalsIgnoreCase(artistName)) {
-                        MusicLibrary.updateSongDetails(library, i, sc);
-                    } else {
-                        System.out.println("Song with that artist does not exist in the library.");
+        // If the song name appears only once in the library, then update the details of that song
+        MusicLibrary.updateSongDetails(library, songRows.get(0), sc);
+    }
+
+    /**
+     * Runs the commands of a file or of standard input against the saved library without prompts,
+     * using the commands of {@link LibraryCommands}. The responses are written to standard output,
+     * while errors and the number of commands per second are written to standard error.
+     *
+     * @param commandFile   the file to read the commands from, or {@code -} for standard input
+     * @param dataDirectory the directory that the library is saved in
+     */
+    public static void runBatch(String commandFile, Path dataDirectory) {
+        // Recover the saved library
+        String[][] library = new String[0][0];
+        SongJournal batchJournal;
+        try {
+            batchJournal = new SongJournal(dataDirectory, SongJournal.DEFAULT_COMPACT_THRESHOLD);
+            library = batchJournal.recover();
+        } catch (IOException e) {
+            System.err.println("Could not open the saved library, changes will not be saved: " + e.getMessage());
+            batchJournal = null;
+        }
+        SongStore store = new SongStore(library);
+
+        // Run the commands with buffered input and output
+        LibraryBatch batch = new LibraryBatch();
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, System.out.charset()), BATCH_BUFFER_SIZE);
+        try (BufferedReader in = commandFile.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), BATCH_BUFFER_SIZE)
+                : Files.newBufferedReader(Path.of(commandFile), StandardCharsets.UTF_8)) {
+            batch.run(in, out, store);
+        } catch (IOException | InvalidPathException e) {
+            System.err.println("Could not run the commands: " + e.getMessage());
+        }
+
+        // Save the rows that were changed or added by the commands
+        if (batchJournal != null) {
+            SongStore.Snapshot snapshot = store.snapshot();
+            try (SongJournal savedJournal = batchJournal) {
+                for (int row = 0; row < snapshot.size(); row++) {
+                    String songName = snapshot.getSongName(row);
+                    String artist = snapshot.getArtist(row);
+                    if (row >= library.length) {
+                        savedJournal.appendAdd(songName, artist);
+                    } else if (!songName.equals(library[row][SONG_COL]) || !artist.equals(library[row][ARTIST_COL])) {
+                        savedJournal.appendUpdate(row, songName, artist);
                     }
                 }
-                // If the song name appears only once in the library, then update the song details
-                else {
-                    MusicLibrary.updateSongDetails(library, i, sc);
+                savedJournal.commit();
+                if (savedJournal.shouldCompact()) {
+                    savedJournal.snapshot(snapshot.toLibrary());
                 }
-
-                return;
+            } catch (IOException e) {
+                System.err.println("Could not save the library: " + e.getMessage());
             }
         }
+
+        System.err.printf("Ran %,d commands (%,.0f commands/s).\n", batch.getCommands(), batch.getCommandsPerSecond());
     }
 
     /**
      * The main method
+     * <p>
+     * The library is saved in the directory given as the first command line argument,
+     * or in {@code musiclibrary-data} if there is none.
+     * <p>
+     * With {@code --batch <command file or -> [directory]}, the commands are run without prompts
+     * instead, as described in {@link #runBatch(String, Path)}.
      *
      * @param args the array of command line arguments
      */
     public static void main(String[] args) {
+        // Run the commands without prompts if the batch mode is used
+        if (args.length > 0 && args[0].equals(BATCH_OPTION)) {
+            if (args.length < 2) {
+                System.err.println("Usage: java musiclibrary.MusicLibrary --batch <command file or -> [directory]");
+                return;
+            }
+            MusicLibrary.runBatch(args[1], Path.of((args.length > 2) ? args[2] : DATA_DIRECTORY));
+            return;
+        }
+
         // Create a Scanner instance
         Scanner sc = new Scanner(System.in);
 
-        // Create a 2D array to store the songs in
+        // Create a 2D array to store the songs in, recovering the songs saved in the data directory
         String[][] library = new String[0][0];
+        Path dataDirectory = Path.of((args.length > 0) ? args[0] : DATA_DIRECTORY);
+        try {
+            journal = new SongJournal(dataDirectory, SongJournal.DEFAULT_COMPACT_THRESHOLD);
+            library = journal.recover();
+        } catch (IOException e) {
+            System.out.println("Could not open the saved library, changes will not be saved: " + e.getMessage());
+            journal = null;
+        }
 
         // Welcome the user to the Music Library program
         System.out.println("Welcome to the Music Library!");
@@ -438,6 +1055,21 @@ public class MusicLibrary {
                 case 4: // Update Song
                     MusicLibrary.updateSong(library, sc);
                     break;
+                case 5: // Browse Library
+                    MusicLibrary.browseLibrary(library, sc);
+                    break;
+                case 6: // Import Songs
+                    library = MusicLibrary.importSongs(library, sc);
+                    break;
+                case 7: // Search Songs
+                    MusicLibrary.searchSongs(library, sc);
+                    break;
+                case 8: // Artist Report
+                    MusicLibrary.viewArtistReport(library, sc);
+                    break;
+                case 9: // Batch Update
+                    MusicLibrary.batchUpdate(library, sc);
+                    break;
                 case 0: // Exit
                     System.out.println("Goodbye!");
                     break;
@@ -445,8 +1077,21 @@ public class MusicLibrary {
                     System.out.println("Please enter a valid choice.");
                     break;
             }
+
+            // Save the changes made by the choice
+            MusicLibrary.saveChanges(library, false);
         } while (choice != 0);
 
+        // Compact the journal into a snapshot and close it
+        MusicLibrary.saveChanges(library, true);
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.out.println("Could not close the saved library: " + e.getMessage());
+            }
+        }
+
         // Close the scanner to avoid resource leaks
         sc.close();
     }
@@ -0,0 +1,226 @@
+package musiclibrary;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+
+/**
+ * A read-only, memory-mapped catalog of songs stored in a compact binary file.
+ * <p>
+ * Artists are stored once in a dictionary and every song refers to its artist by id. Song names are stored as UTF-8
+ * bytes with an offset table, so a song can be read without parsing the rest of the file. Opening a catalog only maps
+ * the file, and song names and artists are decoded when they are asked for.
+ * <p>
+ * The file is laid out as follows, with every number in big-endian order:
+ * <pre>
+ * int  magic, int songCount, int artistCount
+ * int  artistOffsets[artistCount + 1], byte artistBytes[]   the artist dictionary
+ * int  artistIds[songCount]                                the artist id column
+ * int  songNameOffsets[songCount + 1], byte songNameBytes[] the song name blobs
+ * </pre>
+ */
+public class SongCatalog {
+    // Constants
+    private static final int MAGIC = 0x4D4C4331; // "MLC1"
+    private static final int HEADER_SIZE = Integer.BYTES * 3;
+
+    // Attributes
+    private final ByteBuffer buffer;
+    private final int songCount;
+    private final int artistCount;
+    private final int artistOffsetsStart;
+    private final int artistBytesStart;
+    private final int artistIdsStart;
+    private final int songNameOffsetsStart;
+    private final int songNameBytesStart;
+    private final String[] artistCache;
+
+    // Reads the header of a mapped catalog and finds where each section starts
+    private SongCatalog(ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a song catalog.");
+        }
+        this.buffer = buffer;
+        this.songCount = buffer.getInt(Integer.BYTES);
+        this.artistCount = buffer.getInt(Integer.BYTES * 2);
+
+        this.artistOffsetsStart = HEADER_SIZE;
+        this.artistBytesStart = this.artistOffsetsStart + (this.artistCount + 1) * Integer.BYTES;
+        this.artistIdsStart = this.artistBytesStart + buffer.getInt(this.artistOffsetsStart + this.artistCount * Integer.BYTES);
+        this.songNameOffsetsStart = this.artistIdsStart + this.songCount * Integer.BYTES;
+        this.songNameBytesStart = this.songNameOffsetsStart + (this.songCount + 1) * Integer.BYTES;
+        this.artistCache = new String[this.artistCount];
+    }
+
+    // Getters
+
+    /**
+     * @return the number of songs in the catalog
+     */
+    public int size() {
+        return this.songCount;
+    }
+
+    /**
+     * @return the number of distinct artists in the catalog
+     */
+    public int getArtistCount() {
+        return this.artistCount;
+    }
+
+    /**
+     * @param row the row of the song
+     * @return the artist id of the song
+     */
+    public int getArtistId(int row) {
+        this.checkRow(row);
+        return this.buffer.getInt(this.artistIdsStart + row * Integer.BYTES);
+    }
+
+    /**
+     * @param artistId the artist id
+     * @return the name of the artist, which is only decoded once
+     */
+    public String getArtistName(int artistId) {
+        if (artistId < 0 || artistId >= this.artistCount) {
+            throw new IndexOutOfBoundsException("Artist id " + artistId + " out of bounds for length " + this.artistCount);
+        }
+        String artist = this.artistCache[artistId];
+        if (artist == null) {
+            artist = this.decode(this.artistOffsetsStart, this.artistBytesStart, artistId);
+            this.artistCache[artistId] = artist;
+        }
+        return artist;
+    }
+
+    /**
+     * @param row the row of the song
+     * @return the artist of the song
+     */
+    public String getArtist(int row) {
+        return this.getArtistName(this.getArtistId(row));
+    }
+
+    /**
+     * @param row the row of the song
+     * @return the song name of the song
+     */
+    public String getSongName(int row) {
+        this.checkRow(row);
+        return this.decode(this.songNameOffsetsStart, this.songNameBytesStart, row);
+    }
+
+    // Methods
+
+    /**
+     * Writes a library to a catalog file, replacing the file if it exists.
+     *
+     * @param path    the path of the catalog file
+     * @param library the two-dimensional array containing songs and artists
+     * @throws IOException if the file cannot be written or the library is too large for a catalog
+     */
+    public static void write(Path path, String[][] library) throws IOException {
+        // Build the artist dictionary and the artist id column
+        HashMap<String, Integer> artistIds = new HashMap<>();
+        int[] artistIdColumn = new int[library.length];
+        long artistBytesLength = 0;
+        long songNameBytesLength = 0;
+        for (int i = 0; i < library.length; i++) {
+            Integer artistId = artistIds.get(library[i][1]);
+            if (artistId == null) {
+                artistId = artistIds.size();
+                artistIds.put(library[i][1], artistId);
+                artistBytesLength += library[i][1].getBytes(StandardCharsets.UTF_8).length;
+            }
+            artistIdColumn[i] = artistId;
+            songNameBytesLength += library[i][0].getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        // A catalog is mapped as a single buffer, so it must fit in 2 GB
+        long fileLength = HEADER_SIZE + (artistIds.size() + 1L) * Integer.BYTES + artistBytesLength
+                + (long) library.length * Integer.BYTES + (library.length + 1L) * Integer.BYTES + songNameBytesLength;
+        if (fileLength > Integer.MAX_VALUE) {
+            throw new IOException("The library is too large for a song catalog.");
+        }
+
+        // Order the artists by id
+        byte[][] artistBytes = new byte[artistIds.size()][];
+        for (var entry : artistIds.entrySet()) {
+            artistBytes[entry.getValue()] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(library.length);
+            out.writeInt(artistBytes.length);
+
+            // Artist dictionary
+            int offset = 0;
+            for (byte[] artist : artistBytes) {
+                out.writeInt(offset);
+                offset += artist.length;
+            }
+            out.writeInt(offset);
+            for (byte[] artist : artistBytes) {
+                out.write(artist);
+            }
+
+            // Artist id column
+            for (int artistId : artistIdColumn) {
+                out.writeInt(artistId);
+            }
+
+            // Song name offset table and blobs, encoding each song name once
+            byte[][] songNames = new byte[library.length][];
+            offset = 0;
+            for (int i = 0; i < library.length; i++) {
+                songNames[i] = library[i][0].getBytes(StandardCharsets.UTF_8);
+                out.writeInt(offset);
+                offset += songNames[i].length;
+            }
+            out.writeInt(offset);
+            for (byte[] songName : songNames) {
+                out.write(songName);
+            }
+        }
+    }
+
+    /**
+     * Opens a catalog file by mapping it into memory. Nothing is parsed until a song is read.
+     *
+     * @param path the path of the catalog file
+     * @return the opened catalog
+     * @throws IOException if the file cannot be mapped or is not a catalog
+     */
+    public static SongCatalog open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new SongCatalog(buffer);
+        }
+    }
+
+    // Throws an exception if a row is not in the catalog
+    private void checkRow(int row) {
+        if (row < 0 || row >= this.songCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for length " + this.songCount);
+        }
+    }
+
+    // Decodes the i-th UTF-8 string of a section from its offset table
+    private String decode(int offsetsStart, int bytesStart, int i) {
+        int start = this.buffer.getInt(offsetsStart + i * Integer.BYTES);
+        int end = this.buffer.getInt(offsetsStart + (i + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        this.buffer.get(bytesStart + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,145 @@
+package musiclibrary;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A list of changes to the song names and artists of many rows that are checked and applied together,
+ * such as renaming an artist across all of their songs.
+ * <p>
+ * The edits are checked against the library in one pass over the edits using the song index,
+ * so checking costs the size of the batch instead of the size of the library for every edit.
+ */
+public class SongEdits {
+    // Attributes
+    private final LinkedHashMap<Integer, String[]> editsByRow; // Later edits of a row replace earlier ones
+
+    /**
+     * Creates a new empty {@code SongEdits}.
+     */
+    public SongEdits() {
+        this.editsByRow = new LinkedHashMap<>();
+    }
+
+    // Getters
+
+    /**
+     * @return the number of rows that are edited
+     */
+    public int size() {
+        return this.editsByRow.size();
+    }
+
+    /**
+     * @return the rows that are edited, in the order they were first edited
+     */
+    public int[] getRows() {
+        int[] rows = new int[this.editsByRow.size()];
+        int i = 0;
+        for (int row : this.editsByRow.keySet()) {
+            rows[i++] = row;
+        }
+        return rows;
+    }
+
+    /**
+     * @param library the two-dimensional array containing songs and artists
+     * @param row     the edited row
+     * @return the song name of the row after the edits
+     */
+    public String getSongName(String[][] library, int row) {
+        String[] edit = this.editsByRow.get(row);
+        return (edit == null || edit[0] == null) ? library[row][0] : edit[0];
+    }
+
+    /**
+     * @param library the two-dimensional array containing songs and artists
+     * @param row     the edited row
+     * @return the artist of the row after the edits
+     */
+    public String getArtist(String[][] library, int row) {
+        String[] edit = this.editsByRow.get(row);
+        return (edit == null || edit[1] == null) ? library[row][1] : edit[1];
+    }
+
+    // Methods
+
+    /**
+     * Changes the song name and artist of a row.
+     *
+     * @param row      the row to edit
+     * @param songName the new song name, or null to keep it
+     * @param artist   the new artist, or null to keep it
+     */
+    public void edit(int row, String songName, String artist) {
+        String[] edit = this.editsByRow.computeIfAbsent(row, k -> new String[2]);
+        if (songName != null) {
+            edit[0] = songName;
+        }
+        if (artist != null) {
+            edit[1] = artist;
+        }
+    }
+
+    /**
+     * Changes the song name of a row.
+     *
+     * @param row      the row to edit
+     * @param songName the new song name
+     */
+    public void retitle(int row, String songName) {
+        this.edit(row, songName, null);
+    }
+
+    /**
+     * Changes the artist of every row in a list of rows, such as the rows of an artist from an {@link ArtistIndex}.
+     *
+     * @param rows   the rows to edit
+     * @param artist the new artist
+     */
+    public void renameArtist(IntList rows, String artist) {
+        for (int i = 0; i < rows.size(); i++) {
+            this.edit(rows.get(i), null, artist);
+        }
+    }
+
+    /**
+     * Finds an edit that would make a row a duplicate of another song, either of a row that is not edited
+     * or of another edited row, or that would make a song name or artist too long to be saved.
+     *
+     * @param library   the two-dimensional array containing songs and artists
+     * @param songIndex the song index of the library
+     * @return an edited row that would be a duplicate, or -1 if the edits can be applied
+     */
+    public int findConflict(String[][] library, SongIndex songIndex) {
+        HashMap<String, Integer> newKeys = new HashMap<>();
+        for (Map.Entry<Integer, String[]> entry : this.editsByRow.entrySet()) {
+            int row = entry.getKey();
+            if (row < 0 || row >= library.length) {
+                throw new IndexOutOfBoundsException("Row " + row + " out of bounds for length " + library.length);
+            }
+            String songName = this.getSongName(library, row);
+            String artist = this.getArtist(library, row);
+            if (!SongJournal.canSave(songName) || !SongJournal.canSave(artist)) {
+                return row;
+            }
+            String key = SongIndex.key(songName, ArtistKey.of(artist));
+
+            // Two edited rows cannot end up as the same song
+            if (newKeys.putIfAbsent(key, row) != null) {
+                return row;
+            }
+            // A row that keeps its song is only a conflict if it is not being edited away from it,
+            // and every row of a song saved more than once is checked
+            IntList existingRows = songIndex.rowsOf(key);
+            for (int i = 0; i < existingRows.size(); i++) {
+                int existingRow = existingRows.get(i);
+                if (existingRow != row && !this.editsByRow.containsKey(existingRow)) {
+                    return row;
+                }
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,244 @@
+package musiclibrary;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reads songs in bulk from CSV, TSV, and M3U files.
+ * <p>
+ * A file is streamed in batches of lines, and the lines of each batch are parsed in parallel, so only one batch of the
+ * file is in memory at a time. The songs are then checked for duplicates in file order using the same rule as adding
+ * a song: the same song name and the same artist, ignoring case.
+ * <ul>
+ *     <li>CSV and TSV files have the song name in the first column and the artist in the second column.
+ *     A first row with a "title" or "song name" column is treated as a header. CSV fields may be quoted,
+ *     but may not contain line breaks.</li>
+ *     <li>M3U files are read from their {@code #EXTINF:<duration>,<artist> - <song name>} lines.</li>
+ * </ul>
+ */
+public class SongImporter {
+    // Constants
+    private static final int BATCH_LINES = 1 << 15;
+
+    /**
+     * The songs read from a file and the number of rows that were rejected.
+     */
+    public static class Result {
+        private final String[][] songs;
+        private final int rowsRead;
+        private final int duplicates;
+        private final int malformed;
+        private final long nanos;
+
+        private Result(String[][] songs, int rowsRead, int duplicates, int malformed, long nanos) {
+            this.songs = songs;
+            this.rowsRead = rowsRead;
+            this.duplicates = duplicates;
+            this.malformed = malformed;
+            this.nanos = nanos;
+        }
+
+        /**
+         * @return the new songs to append to the library, each row holding a song name and an artist
+         */
+        public String[][] getSongs() {
+            return this.songs;
+        }
+
+        /**
+         * @return the number of rows that were read, including rejected rows
+         */
+        public int getRowsRead() {
+            return this.rowsRead;
+        }
+
+        /**
+         * @return the number of rows rejected because the song is already in the library or the file
+         */
+        public int getDuplicates() {
+            return this.duplicates;
+        }
+
+        /**
+         * @return the number of rows rejected because a song name or artist is missing
+         */
+        public int getMalformed() {
+            return this.malformed;
+        }
+
+        /**
+         * @return the number of rows read per second
+         */
+        public double getRowsPerSecond() {
+            return this.rowsRead / Math.max(this.nanos / 1e9, 1e-9);
+        }
+    }
+
+    // A parsed row with its duplicate key, or a malformed row when the key is null
+    private record ParsedRow(String songName, String artist, String key) {
+    }
+
+    // Methods
+
+    /**
+     * Reads the songs of a file that are not yet in the library.
+     *
+     * @param path     the path of the CSV, TSV, or M3U file
+     * @param existing the song index of the library that the songs will be added to
+     * @return the songs that can be added and the number of rejected rows
+     * @throws IOException if the file cannot be read or its format is not supported
+     */
+    public static Result read(Path path, SongIndex existing) throws IOException {
+        long start = System.nanoTime();
+
+        // Pick a parser from the file extension
+        String fileName = path.getFileName().toString().toLowerCase();
+        Format format;
+        if (fileName.endsWith(".csv")) {
+            format = Format.CSV;
+        } else if (fileName.endsWith(".tsv")) {
+            format = Format.TSV;
+        } else if (fileName.endsWith(".m3u") || fileName.endsWith(".m3u8")) {
+            format = Format.M3U;
+        } else {
+            throw new IOException("Unsupported file type, expected a .csv, .tsv, or .m3u file.");
+        }
+
+        // Read the file one batch of lines at a time and check the songs of each batch for duplicates in file order,
+        // so the first occurrence of a song is the one kept
+        ArrayList<String[]> songs = new ArrayList<>();
+        HashSet<String> seen = new HashSet<>();
+        int rowsRead = 0;
+        int duplicates = 0;
+        int malformed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            ArrayList<String> batch = new ArrayList<>();
+            boolean firstLine = true;
+            String line;
+            do {
+                line = reader.readLine();
+                if (line != null) {
+                    // Skip the byte order mark and a header row before the first song
+                    if (firstLine && line.startsWith("\uFEFF")) {
+                        line = line.substring(1);
+                    }
+                    if (firstLine && !line.isBlank()) {
+                        firstLine = false;
+                        if (format != Format.M3U && isHeader(fieldsOf(line, format))) {
+                            continue;
+                        }
+                    }
+                    batch.add(line);
+                }
+
+                if (batch.size() == BATCH_LINES || (line == null && !batch.isEmpty())) {
+                    List<ParsedRow> parsedRows = batch.parallelStream()
+                            .map(batchLine -> parseLine(batchLine, format))
+                            .collect(Collectors.toList());
+                    for (ParsedRow row : parsedRows) {
+                        if (row == null) {
+                            continue;
+                        }
+                        rowsRead++;
+                        if (row.key() == null) {
+                            malformed++;
+                        } else if (existing.contains(row.key()) || !seen.add(row.key())) {
+                            duplicates++;
+                        } else {
+                            songs.add(new String[]{row.songName(), row.artist()});
+                        }
+                    }
+                    batch.clear();
+                }
+            } while (line != null);
+        }
+
+        return new Result(songs.toArray(new String[0][]), rowsRead, duplicates, malformed, System.nanoTime() - start);
+    }
+
+    // The supported file formats
+    private enum Format {
+        CSV, TSV, M3U
+    }
+
+    // Parses a line into a row, or returns null if the line is blank or, in playlists, is not the song information
+    private static ParsedRow parseLine(String line, Format format) {
+        if (line.isBlank() || (format == Format.M3U && !line.startsWith("#EXTINF:"))) {
+            return null;
+        }
+        String[] fields = fieldsOf(line, format);
+
+        // Trim the fields like the prompts do and reject rows without a song name or artist,
+        // or with one that is too long to be saved
+        String songName = (fields.length > 0) ? fields[0].trim() : "";
+        String artist = (fields.length > 1) ? fields[1].trim() : "";
+        if (songName.isEmpty() || artist.isEmpty() || !SongJournal.canSave(songName) || !SongJournal.canSave(artist)) {
+            return new ParsedRow(songName, artist, null);
+        }
+        return new ParsedRow(songName, artist, SongIndex.key(songName, ArtistKey.of(artist)));
+    }
+
+    // Splits a line into its song name and artist fields
+    private static String[] fieldsOf(String line, Format format) {
+        if (format == Format.M3U) {
+            return parseExtinf(line);
+        }
+        return (format == Format.CSV) ? parseCsvLine(line) : line.split("\t", -1);
+    }
+
+    // Checks whether the fields of the first row are a header with a "title" or "song name" column
+    private static boolean isHeader(String[] fields) {
+        return fields.length > 0
+                && (fields[0].trim().equalsIgnoreCase("title") || fields[0].trim().equalsIgnoreCase("song name"));
+    }
+
+    // Splits a line of a CSV file into its fields, unquoting quoted fields
+    private static String[] parseCsvLine(String line) {
+        ArrayList<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    // Reads the song name and artist from an "#EXTINF:<duration>,<artist> - <song name>" line
+    private static String[] parseExtinf(String line) {
+        int comma = line.indexOf(',');
+        if (comma == -1) {
+            return new String[0];
+        }
+        String info = line.substring(comma + 1);
+        int separator = info.indexOf(" - ");
+        if (separator == -1) {
+            return new String[]{info};
+        }
+        return new String[]{info.substring(separator + 3), info.substring(0, separator)};
+    }
+}
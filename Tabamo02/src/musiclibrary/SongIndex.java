@@ -0,0 +1,230 @@
+package musiclibrary;
+
+import java.util.HashMap;
+
+/**
+ * A hash index over the rows of a music library keyed on the exact song name and the case-folded artist.
+ * <p>
+ * Two songs are considered the same if their song names are equal and their artists are equal when ignoring case,
+ * which is the same rule used by {@link MusicLibrary} when rejecting duplicates.
+ * <p>
+ * A library can still hold the same song in more than one row, such as a library saved before duplicates were
+ * rejected. Every row of a key is kept, so a key stays in the index until the last of its rows leaves it.
+ */
+public class SongIndex {
+    // Separates the song name from the artist in a key, a character that cannot be typed in the prompts
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    // Attributes
+    private final HashMap<String, Integer> rowsByKey; // The first row of each key
+    private final HashMap<String, IntList> laterRows; // The other rows of the keys of more than one row, in order
+    private int size;
+
+    /**
+     * Creates a new empty {@code SongIndex}.
+     */
+    public SongIndex() {
+        this.rowsByKey = new HashMap<>();
+        this.laterRows = new HashMap<>();
+        this.size = 0;
+    }
+
+    // Getter
+
+    /**
+     * @return the number of rows that have been indexed
+     */
+    public int size() {
+        return this.size;
+    }
+
+    // Methods
+
+    /**
+     * Case-folds a string so that two strings fold to the same value exactly when
+     * {@link String#equalsIgnoreCase(String)} considers them equal.
+     *
+     * @param s the string to fold
+     * @return the case-folded string
+     */
+    public static String foldCase(String s) {
+        // Fast path: strings that have no uppercase ASCII and no non-ASCII characters are already folded
+        boolean folded = true;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80 || (c >= 'A' && c <= 'Z')) {
+                folded = false;
+                break;
+            }
+        }
+        if (folded) {
+            return s;
+        }
+
+        // equalsIgnoreCase() compares code points by converting them to upper case and then to lower case
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); ) {
+            int codePoint = s.codePointAt(i);
+            sb.appendCodePoint(Character.toLowerCase(Character.toUpperCase(codePoint)));
+            i += Character.charCount(codePoint);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Builds the key of a song from its song name and the key of its artist. Every method of the index takes a key
+     * built this way, so the artist of a song is folded once, when its {@code ArtistKey} is created.
+     *
+     * @param songName the song name, compared exactly
+     * @param artist   the key of the artist, compared ignoring case
+     * @return the key of the song
+     */
+    public static String key(String songName, ArtistKey artist) {
+        return songName + KEY_SEPARATOR + artist.getFolded();
+    }
+
+    /**
+     * Finds the first row of a song in the library.
+     *
+     * @param key the key of the song to find
+     * @return the first row of the song in the library, otherwise -1
+     */
+    public int find(String key) {
+        Integer row = this.rowsByKey.get(key);
+        return (row == null) ? -1 : row;
+    }
+
+    /**
+     * Checks whether a song exists in the library.
+     *
+     * @param key the key of the song to check for
+     * @return true if the song exists, otherwise false
+     */
+    public boolean contains(String key) {
+        return this.rowsByKey.containsKey(key);
+    }
+
+    /**
+     * Gets every row of a song, such as the rows of a song that was saved more than once.
+     *
+     * @param key the key of the song to find
+     * @return a new list of the rows of the song in ascending order, or an empty list if the song does not exist
+     */
+    public IntList rowsOf(String key) {
+        IntList rows = new IntList();
+        Integer firstRow = this.rowsByKey.get(key);
+        if (firstRow == null) {
+            return rows;
+        }
+        rows.add(firstRow);
+        IntList later = this.laterRows.get(key);
+        for (int i = 0; later != null && i < later.size(); i++) {
+            rows.add(later.get(i));
+        }
+        return rows;
+    }
+
+    /**
+     * Checks whether a song is held by a row other than a row, such as when checking that updating the row would
+     * not make it a duplicate.
+     *
+     * @param key the key of the song to check for
+     * @param row the row to leave out
+     * @return true if another row has the key, otherwise false
+     */
+    public boolean hasOtherRow(String key, int row) {
+        Integer firstRow = this.rowsByKey.get(key);
+        return firstRow != null && (firstRow != row || this.laterRows.containsKey(key));
+    }
+
+    /**
+     * Indexes a song that was appended to the library.
+     *
+     * @param key the key of the new row
+     */
+    public void add(String key) {
+        this.put(this.size++, key);
+    }
+
+    /**
+     * Re-indexes a row whose song name or artist was changed.
+     *
+     * @param row    the row that was updated
+     * @param oldKey the key before the update
+     * @param newKey the key after the update
+     */
+    public void update(int row, String oldKey, String newKey) {
+        this.remove(row, oldKey);
+        this.put(row, newKey);
+    }
+
+    /**
+     * Removes a row from the rows of its key, and removes the key once it has no rows left.
+     * <p>
+     * Together with {@link #put(int, String)}, this lets many rows change their keys at once, even when
+     * one row takes the old key of another: every old key is removed before any new key is put.
+     *
+     * @param row the row that is being updated
+     * @param key the key of the row before the update
+     */
+    public void remove(int row, String key) {
+        Integer firstRow = this.rowsByKey.get(key);
+        if (firstRow == null) {
+            return;
+        }
+        IntList later = this.laterRows.get(key);
+        if (firstRow == row) {
+            // The next row of the key becomes its first row
+            if (later == null) {
+                this.rowsByKey.remove(key);
+                return;
+            }
+            this.rowsByKey.put(key, later.get(0));
+            later.removeAt(0);
+        } else if (later == null || !later.removeSorted(row)) {
+            return;
+        }
+        if (later.size() == 0) {
+            this.laterRows.remove(key);
+        }
+    }
+
+    /**
+     * Puts the key of a row after it was updated.
+     *
+     * @param row the row that was updated
+     * @param key the key of the row after the update
+     */
+    public void put(int row, String key) {
+        // Keep the first row of a key like a linear scan would find, and the other rows after it
+        Integer firstRow = this.rowsByKey.get(key);
+        if (firstRow == null) {
+            this.rowsByKey.put(key, row);
+            return;
+        }
+        if (firstRow == row) {
+            return;
+        }
+        IntList later = this.laterRows.computeIfAbsent(key, k -> new IntList());
+        if (row < firstRow) {
+            this.rowsByKey.put(key, row);
+            later.insertSorted(firstRow);
+        } else if (!later.containsSorted(row)) {
+            later.insertSorted(row);
+        }
+    }
+
+    /**
+     * Discards the index and indexes every row of the library again.
+     *
+     * @param library the two-dimensional array containing songs and artists
+     */
+    public void rebuild(String[][] library) {
+        this.rowsByKey.clear();
+        this.laterRows.clear();
+        this.size = 0;
+        for (String[] row : library) {
+            this.add(key(row[0], ArtistKey.of(row[1])));
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package musiclibrary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.zip.CRC32;
+
+/**
+ * Saves a music library to a directory as an append-only journal of added and updated songs,
+ * compacted from time to time into a binary snapshot.
+ * <p>
+ * Appended records are buffered in memory and written with a single {@code fsync} when {@link #commit()} is called,
+ * so that many edits can share one sync. Recovery reads the snapshot and replays the journal written after it.
+ * <p>
+ * The journal starts with a generation number, and the snapshot saves the generation of the journal it includes.
+ * If the program stops after a snapshot is saved but before the journal is emptied, recovery skips the journal
+ * instead of replaying its records a second time.
+ */
+public class SongJournal implements Closeable {
+    // Constants
+    private static final String SNAPSHOT_FILE = "library.snapshot";
+    private static final String JOURNAL_FILE = "library.journal";
+    private static final int SNAPSHOT_MAGIC = 0x4D4C5332; // "MLS2"
+    private static final int JOURNAL_MAGIC = 0x4D4C4A31; // "MLJ1"
+    private static final int JOURNAL_HEADER_LENGTH = Integer.BYTES + Long.BYTES;
+    private static final byte OP_ADD = 1;
+    private static final byte OP_UPDATE = 2;
+    private static final byte OP_UPDATE_BATCH = 3;
+
+    /**
+     * The default number of journal records after which {@link #shouldCompact()} suggests taking a snapshot.
+     */
+    public static final int DEFAULT_COMPACT_THRESHOLD = 1_000;
+
+    /**
+     * The largest number of bytes a song name or artist can take up when it is saved.
+     */
+    public static final int MAX_FIELD_BYTES = 65_535;
+
+    // Attributes
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final FileChannel journalChannel;
+    private final ByteArrayOutputStream pending;
+    private final DataOutputStream pendingOut;
+    private final int compactThreshold;
+    private long generation; // The generation of the journal, or -1 until the journal is recovered
+    private int pendingRecords;
+    private int journalRecords;
+    private long bytesJournaled;
+    private long bytesSnapshotted;
+
+    /**
+     * Opens the journal of a directory, creating the directory if it does not exist yet.
+     *
+     * @param directory        the directory to keep the snapshot and journal in
+     * @param compactThreshold the number of journal records after which a snapshot should be taken
+     * @throws IOException if the directory or journal cannot be opened
+     */
+    public SongJournal(Path directory, int compactThreshold) throws IOException {
+        Files.createDirectories(directory);
+        this.snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        this.journalPath = directory.resolve(JOURNAL_FILE);
+        this.journalChannel = FileChannel.open(this.journalPath,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.pending = new ByteArrayOutputStream();
+        this.pendingOut = new DataOutputStream(this.pending);
+        this.compactThreshold = compactThreshold;
+        this.generation = -1;
+    }
+
+    // Getters
+
+    /**
+     * @return the number of bytes written to the journal since it was opened
+     */
+    public long getBytesJournaled() {
+        return this.bytesJournaled;
+    }
+
+    /**
+     * @return the number of bytes written to snapshots since the journal was opened
+     */
+    public long getBytesSnapshotted() {
+        return this.bytesSnapshotted;
+    }
+
+    /**
+     * @return true if the journal has grown past its threshold and a snapshot should be taken
+     */
+    public boolean shouldCompact() {
+        return this.journalRecords >= this.compactThreshold;
+    }
+
+    // Methods
+
+    /**
+     * Checks whether a song name or artist is short enough to be saved.
+     * Each one is saved in modified UTF-8, which takes up to three bytes for every character.
+     *
+     * @param field the song name or artist to check
+     * @return true if the field takes up at most {@link #MAX_FIELD_BYTES} bytes, otherwise false
+     */
+    public static boolean canSave(String field) {
+        if (field.length() * 3 <= MAX_FIELD_BYTES) {
+            return true;
+        }
+        long bytes = 0;
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            bytes += (c >= 0x0001 && c <= 0x007F) ? 1 : (c <= 0x07FF) ? 2 : 3;
+        }
+        return bytes <= MAX_FIELD_BYTES;
+    }
+
+    /**
+     * Rebuilds the library from the snapshot and the journal records written after it.
+     * A record that was only partly written, for example because the program crashed, is discarded.
+     * The journal must be recovered before any record is committed to it.
+     *
+     * @return the recovered two-dimensional array containing songs and artists
+     * @throws IOException if the snapshot or journal cannot be read
+     */
+    public String[][] recover() throws IOException {
+        ArrayList<String[]> rows = new ArrayList<>();
+
+        // Load the snapshot
+        long snapshotGeneration = -1;
+        if (Files.exists(this.snapshotPath)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.snapshotPath)))) {
+                if (in.readInt() != SNAPSHOT_MAGIC) {
+                    throw new IOException("Not a music library snapshot: " + this.snapshotPath);
+                }
+                snapshotGeneration = in.readLong();
+                int count = in.readInt();
+                rows.ensureCapacity(count);
+                for (int i = 0; i < count; i++) {
+                    rows.add(new String[]{in.readUTF(), in.readUTF()});
+                }
+            }
+        }
+
+        // A journal that the snapshot already includes, or whose header was never written, is started again
+        long journalGeneration = this.readJournalGeneration();
+        if (journalGeneration <= snapshotGeneration) {
+            this.startJournal(snapshotGeneration + 1);
+            return rows.toArray(new String[0][]);
+        }
+
+        // Replay the journal until the end or until a record is torn or corrupted
+        long validLength = JOURNAL_HEADER_LENGTH;
+        this.generation = journalGeneration;
+        this.journalRecords = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.journalPath)))) {
+            in.skipNBytes(JOURNAL_HEADER_LENGTH);
+            while (true) {
+                int length;
+                long checksum;
+                byte[] payload;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt() & 0xFFFFFFFFL;
+                    payload = in.readNBytes(Math.max(length, 0));
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length < 0 || payload.length != length || checksumOf(payload) != checksum) {
+                    break;
+                }
+
+                DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+                byte op = record.readByte();
+                if (op == OP_ADD) {
+                    rows.add(new String[]{record.readUTF(), record.readUTF()});
+                } else if (op == OP_UPDATE) {
+                    int row = record.readInt();
+                    if (row < 0 || row >= rows.size()) {
+                        break;
+                    }
+                    rows.set(row, new String[]{record.readUTF(), record.readUTF()});
+                } else if (op == OP_UPDATE_BATCH) {
+                    // Read the whole batch before changing any row so that a bad batch is discarded entirely
+                    int count = record.readInt();
+                    int[] batchRows = new int[Math.max(count, 0)];
+                    String[][] batchSongs = new String[batchRows.length][];
+                    boolean valid = count >= 0;
+                    for (int i = 0; valid && i < count; i++) {
+                        batchRows[i] = record.readInt();
+                        batchSongs[i] = new String[]{record.readUTF(), record.readUTF()};
+                        valid = batchRows[i] >= 0 && batchRows[i] < rows.size();
+                    }
+                    if (!valid) {
+                        break;
+                    }
+                    for (int i = 0; i < count; i++) {
+                        rows.set(batchRows[i], batchSongs[i]);
+                    }
+                } else {
+                    break;
+                }
+                validLength += Integer.BYTES * 2 + length;
+                this.journalRecords++;
+            }
+        }
+
+        // Cut off the damaged tail so new records are appended after the last good one
+        this.journalChannel.truncate(validLength);
+        this.journalChannel.position(validLength);
+
+        return rows.toArray(new String[0][]);
+    }
+
+    /**
+     * Buffers a record of a song that was appended to the library.
+     *
+     * @param songName the song name of the new row
+     * @param artist   the artist of the new row
+     * @throws IOException if the record cannot be encoded
+     */
+    public void appendAdd(String songName, String artist) throws IOException {
+        this.appendRecord(OP_ADD, -1, songName, artist);
+    }
+
+    /**
+     * Buffers a record of a row whose song name or artist was updated.
+     *
+     * @param row      the row that was updated
+     * @param songName the song name after the update
+     * @param artist   the artist after the update
+     * @throws IOException if the record cannot be encoded
+     */
+    public void appendUpdate(int row, String songName, String artist) throws IOException {
+        this.appendRecord(OP_UPDATE, row, songName, artist);
+    }
+
+    /**
+     * Buffers a single record of many rows that were updated together, so that after a crash
+     * either all of the updates are recovered or none of them are.
+     *
+     * @param rows      the rows that were updated
+     * @param songNames the song name of each row after the update
+     * @param artists   the artist of each row after the update
+     * @throws IOException if the record cannot be encoded
+     */
+    public void appendUpdates(int[] rows, String[] songNames, String[] artists) throws IOException {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+        DataOutputStream payload = new DataOutputStream(payloadBytes);
+        payload.writeByte(OP_UPDATE_BATCH);
+        payload.writeInt(rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            payload.writeInt(rows[i]);
+            payload.writeUTF(songNames[i]);
+            payload.writeUTF(artists[i]);
+        }
+        this.appendPayload(payloadBytes.toByteArray());
+    }
+
+    /**
+     * Writes every buffered record to the journal and syncs it to the disk once for the whole group.
+     *
+     * @throws IOException if the journal cannot be written
+     */
+    public void commit() throws IOException {
+        if (this.pendingRecords == 0) {
+            return;
+        }
+        if (this.generation == -1) {
+            throw new IllegalStateException("The journal must be recovered before it is written");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(this.pending.toByteArray());
+        while (buffer.hasRemaining()) {
+            this.journalChannel.write(buffer);
+        }
+        this.journalChannel.force(false);
+
+        this.bytesJournaled += this.pending.size();
+        this.journalRecords += this.pendingRecords;
+        this.pending.reset();
+        this.pendingRecords = 0;
+    }
+
+    /**
+     * Writes the whole library to a new snapshot and starts the next generation of the journal.
+     * The snapshot is written to a temporary file first so a crash never leaves a half-written snapshot behind.
+     *
+     * @param library the two-dimensional array containing songs and artists
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void snapshot(String[][] library) throws IOException {
+        if (this.generation == -1) {
+            throw new IllegalStateException("The journal must be recovered before it is written");
+        }
+
+        // Records that were not committed yet are already part of the library being saved
+        this.pending.reset();
+        this.pendingRecords = 0;
+
+        Path tempPath = this.snapshotPath.resolveSibling(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(this.generation);
+            out.writeInt(library.length);
+            for (String[] row : library) {
+                out.writeUTF(row[0]);
+                out.writeUTF(row[1]);
+            }
+            out.flush();
+            channel.force(true);
+            this.bytesSnapshotted += out.size();
+        }
+        Files.move(tempPath, this.snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        SongJournal.syncDirectory(this.snapshotPath.getParent());
+
+        // The journal is only emptied after the new snapshot is in place, and is skipped by recovery until then
+        this.startJournal(this.generation + 1);
+    }
+
+    /**
+     * Closes the journal without writing the buffered records, such as after a write failed and the journal
+     * no longer matches the library. The records committed before the failure can still be recovered.
+     *
+     * @throws IOException if the journal cannot be closed
+     */
+    public void discard() throws IOException {
+        this.pending.reset();
+        this.pendingRecords = 0;
+        this.journalChannel.close();
+    }
+
+    /**
+     * Commits any buffered records and closes the journal.
+     *
+     * @throws IOException if the journal cannot be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.commit();
+        } finally {
+            this.journalChannel.close();
+        }
+    }
+
+    // Reads the generation of the journal, or returns -1 if its header was never written
+    private long readJournalGeneration() throws IOException {
+        if (this.journalChannel.size() < JOURNAL_HEADER_LENGTH) {
+            return -1;
+        }
+        ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER_LENGTH);
+        while (header.hasRemaining()) {
+            if (this.journalChannel.read(header, header.position()) == -1) {
+                throw new EOFException("The journal header was cut off: " + this.journalPath);
+            }
+        }
+        header.flip();
+        if (header.getInt() != JOURNAL_MAGIC) {
+            throw new IOException("Not a music library journal: " + this.journalPath);
+        }
+        return header.getLong();
+    }
+
+    // Empties the journal and writes the header of a new generation
+    private void startJournal(long generation) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER_LENGTH);
+        header.putInt(JOURNAL_MAGIC).putLong(generation).flip();
+        this.journalChannel.truncate(0);
+        while (header.hasRemaining()) {
+            this.journalChannel.write(header, header.position());
+        }
+        this.journalChannel.force(true);
+        this.journalChannel.position(JOURNAL_HEADER_LENGTH);
+        this.generation = generation;
+        this.journalRecords = 0;
+    }
+
+    // Syncs a directory so that a file renamed into it is still there after a crash
+    // Windows cannot open a directory as a file, so the directory is left to the file system there
+    static void syncDirectory(Path directory) throws IOException {
+        if (System.getProperty("os.name").startsWith("Windows")) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    // Encodes a record as its length, its checksum, and its payload
+    private void appendRecord(byte op, int row, String songName, String artist) throws IOException {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+        DataOutputStream payload = new DataOutputStream(payloadBytes);
+        payload.writeByte(op);
+        if (op == OP_UPDATE) {
+            payload.writeInt(row);
+        }
+        payload.writeUTF(songName);
+        payload.writeUTF(artist);
+        this.appendPayload(payloadBytes.toByteArray());
+    }
+
+    // Buffers a payload with its length and its checksum
+    private void appendPayload(byte[] bytes) throws IOException {
+        this.pendingOut.writeInt(bytes.length);
+        this.pendingOut.writeInt((int) checksumOf(bytes));
+        this.pendingOut.write(bytes);
+        this.pendingRecords++;
+    }
+
+    // Computes the CRC-32 checksum of a record payload
+    private static long checksumOf(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,664 @@
+package musiclibrary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32;
+
+/**
+ * A file of songs sorted on disk by their keys, used to keep a music library on disk and to find the row of a song
+ * without searching the library in memory.
+ * <p>
+ * The keys are the same as the keys of {@link SongIndex}: the song name and the case-folded artist. Looking up a key
+ * is a binary search that reads the file, so a {@link BloomFilter} over the keys is saved beside the file and kept in
+ * memory. Most lookups are for songs that do not exist, and the filter answers nearly all of them without reading
+ * the file.
+ * <p>
+ * Songs that are added or updated after the file was written are appended to a change log beside the file and kept
+ * in memory, where they are found before the file is searched. {@link #merge()} writes them into a new file.
+ * Every file is written to a temporary file and renamed into place, and the Bloom filter and the change log save
+ * the ID of the file they belong to, so a filter or log left behind by a crash is never used with another file.
+ * <p>
+ * The file is laid out as follows, with every number in big-endian order:
+ * <pre>
+ * int  magic, int keyCount, long fileId, double falsePositiveRate
+ * long keyOffsets[keyCount + 1]   the offsets of the keys in keyBytes, in sorted order
+ * int  rows[keyCount]             the row of each key
+ * byte keyBytes[]                 the UTF-8 keys
+ * byte songBytes[]                the song name and artist of each row in row order, written by writeUTF()
+ * long songOffsets[keyCount + 1]  the offsets of the songs in songBytes
+ * </pre>
+ */
+public class SongKeyFile implements Closeable {
+    // Constants
+    private static final int MAGIC = 0x4D4C4B32; // "MLK2"
+    private static final int LOG_MAGIC = 0x4D4C4C31; // "MLL1"
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES + Double.BYTES;
+    private static final int LOG_HEADER_SIZE = Integer.BYTES + Long.BYTES;
+    private static final String FILTER_SUFFIX = ".bloom";
+    private static final String LOG_SUFFIX = ".log";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * The default chance that the Bloom filter lets a missing song through to the file.
+     */
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+    /**
+     * The default number of changed songs after which {@link #shouldMerge()} suggests merging them into the file.
+     */
+    public static final int DEFAULT_MERGE_THRESHOLD = 1_000;
+
+    // Attributes
+    private final Path path;
+    private final int mergeThreshold;
+    private final HashMap<Integer, String[]> changedSongs; // The songs added or updated since the file was written
+    private final HashMap<String, IntList> changedKeys; // The rows of the key of each changed song
+    private FileChannel channel;
+    private FileChannel logChannel;
+    private BloomFilter filter;
+    private long fileId;
+    private double falsePositiveRate;
+    private int keyCount;
+    private int size;
+    private long rowsStart;
+    private long keyBytesStart;
+    private long songBytesStart;
+    private long songOffsetsStart;
+    private long lookups;
+    private long filteredLookups;
+    private long fileReads;
+
+    // Creates a key file that is not open yet
+    private SongKeyFile(Path path, int mergeThreshold) {
+        this.path = path;
+        this.mergeThreshold = mergeThreshold;
+        this.changedSongs = new HashMap<>();
+        this.changedKeys = new HashMap<>();
+    }
+
+    // Getters
+
+    /**
+     * @return the number of songs, including the songs added since the file was written
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the number of lookups made
+     */
+    public long getLookups() {
+        return this.lookups;
+    }
+
+    /**
+     * @return the number of lookups that the Bloom filter answered without reading the file
+     */
+    public long getFilteredLookups() {
+        return this.filteredLookups;
+    }
+
+    /**
+     * @return the number of reads made from the file
+     */
+    public long getFileReads() {
+        return this.fileReads;
+    }
+
+    /**
+     * @return true if enough songs have changed that they should be merged into the file
+     */
+    public boolean shouldMerge() {
+        return this.changedSongs.size() >= this.mergeThreshold;
+    }
+
+    // Methods
+
+    /**
+     * Gets the path of the Bloom filter saved beside a key file.
+     *
+     * @param path the path of the key file
+     * @return the path of the Bloom filter
+     */
+    public static Path filterPath(Path path) {
+        return path.resolveSibling(path.getFileName() + FILTER_SUFFIX);
+    }
+
+    /**
+     * Gets the path of the change log saved beside a key file.
+     *
+     * @param path the path of the key file
+     * @return the path of the change log
+     */
+    public static Path logPath(Path path) {
+        return path.resolveSibling(path.getFileName() + LOG_SUFFIX);
+    }
+
+    /**
+     * Writes the songs of a library to a key file and its Bloom filter, replacing them if they exist.
+     * A change log left beside an older file is no longer used. If two songs have the same key, the key refers
+     * to the first of them.
+     *
+     * @param path              the path of the key file
+     * @param library           the two-dimensional array containing songs and artists
+     * @param falsePositiveRate the chance that the Bloom filter lets a missing song through to the file
+     * @throws IOException if the files cannot be written
+     */
+    public static void write(Path path, String[][] library, double falsePositiveRate) throws IOException {
+        // Encode every key and add it to the filter
+        long fileId = ThreadLocalRandom.current().nextLong();
+        byte[][] keys = new byte[library.length][];
+        BloomFilter filter = BloomFilter.create(library.length, falsePositiveRate);
+        Integer[] order = new Integer[library.length];
+        for (int row = 0; row < library.length; row++) {
+            keys[row] = SongIndex.key(library[row][0], ArtistKey.of(library[row][1])).getBytes(StandardCharsets.UTF_8);
+            filter.add(keys[row]);
+            order[row] = row;
+        }
+
+        // Sort the keys by their bytes, keeping equal keys in row order
+        Arrays.sort(order, (a, b) -> {
+            int result = Arrays.compareUnsigned(keys[a], keys[b]);
+            return (result != 0) ? result : Integer.compare(a, b);
+        });
+
+        // The filter is renamed into place first, and is only used once the file with the same ID is in place
+        SongKeyFile.writeFilter(path, fileId, filter);
+        Path tempPath = path.resolveSibling(path.getFileName() + TEMP_SUFFIX);
+        try (FileChannel tempChannel = FileChannel.open(tempPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(tempChannel)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(library.length);
+            out.writeLong(fileId);
+            out.writeDouble(falsePositiveRate);
+            long offset = 0;
+            out.writeLong(offset);
+            for (int row : order) {
+                offset += keys[row].length;
+                out.writeLong(offset);
+            }
+            for (int row : order) {
+                out.writeInt(row);
+            }
+            for (int row : order) {
+                out.write(keys[row]);
+            }
+
+            // Encode each song on its own so that its offset is known
+            long[] songOffsets = new long[library.length + 1];
+            ByteArrayOutputStream songBytes = new ByteArrayOutputStream();
+            DataOutputStream song = new DataOutputStream(songBytes);
+            for (int row = 0; row < library.length; row++) {
+                songBytes.reset();
+                song.writeUTF(library[row][0]);
+                song.writeUTF(library[row][1]);
+                songBytes.writeTo(out);
+                songOffsets[row + 1] = songOffsets[row] + songBytes.size();
+            }
+            for (long songOffset : songOffsets) {
+                out.writeLong(songOffset);
+            }
+            out.flush();
+            tempChannel.force(true);
+        }
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        SongJournal.syncDirectory(path.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Opens a key file, loads its Bloom filter, and replays its change log.
+     *
+     * @param path the path of the key file
+     * @return the opened key file
+     * @throws IOException if the files cannot be read or are not a key file
+     */
+    public static SongKeyFile open(Path path) throws IOException {
+        return SongKeyFile.open(path, DEFAULT_MERGE_THRESHOLD);
+    }
+
+    /**
+     * Opens a key file, loads its Bloom filter, and replays its change log.
+     *
+     * @param path           the path of the key file
+     * @param mergeThreshold the number of changed songs after which they should be merged into the file
+     * @return the opened key file
+     * @throws IOException if the files cannot be read or are not a key file
+     */
+    public static SongKeyFile open(Path path, int mergeThreshold) throws IOException {
+        SongKeyFile keyFile = new SongKeyFile(path, mergeThreshold);
+        keyFile.load();
+        return keyFile;
+    }
+
+    /**
+     * Finds the first row of a song, asking the Bloom filter before reading the file.
+     *
+     * @param key the key of the song to find, built by {@link SongIndex#key(String, ArtistKey)}
+     * @return the first row of the song, otherwise -1
+     * @throws IOException if the file cannot be read
+     */
+    public int find(String key) throws IOException {
+        IntList rows = this.rowsOf(key);
+        return (rows.size() == 0) ? -1 : rows.get(0);
+    }
+
+    /**
+     * Checks if a song is in the file.
+     *
+     * @param key the key of the song to find, built by {@link SongIndex#key(String, ArtistKey)}
+     * @return true if the song is in the file, otherwise false
+     * @throws IOException if the file cannot be read
+     */
+    public boolean contains(String key) throws IOException {
+        return this.find(key) != -1;
+    }
+
+    /**
+     * Checks whether a song is held by a row other than a row, like {@link SongIndex#hasOtherRow(String, int)}.
+     *
+     * @param key the key of the song to check for, built by {@link SongIndex#key(String, ArtistKey)}
+     * @param row the row to leave out
+     * @return true if another row has the key, otherwise false
+     * @throws IOException if the file cannot be read
+     */
+    public boolean hasOtherRow(String key, int row) throws IOException {
+        IntList rows = this.rowsOf(key);
+        return rows.size() > 1 || (rows.size() == 1 && rows.get(0) != row);
+    }
+
+    /**
+     * Gets every row of a song, such as the rows of a song that was saved more than once, asking the Bloom filter
+     * before reading the file.
+     *
+     * @param key the key of the song to find, built by {@link SongIndex#key(String, ArtistKey)}
+     * @return a new list of the rows of the song in ascending order, or an empty list if the song does not exist
+     * @throws IOException if the file cannot be read
+     */
+    public IntList rowsOf(String key) throws IOException {
+        this.lookups++;
+        IntList rows = new IntList();
+        IntList changedRows = this.changedKeys.get(key);
+        if (changedRows != null) {
+            for (int i = 0; i < changedRows.size(); i++) {
+                rows.add(changedRows.get(i));
+            }
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (!this.filter.mightContain(keyBytes)) {
+            this.filteredLookups++;
+            return rows;
+        }
+
+        // Binary search for the first key that is not less than the key, then read every position with the key
+        int low = 0;
+        int high = this.keyCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Arrays.compareUnsigned(this.readKey(mid), keyBytes) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        ByteBuffer row = ByteBuffer.allocate(Integer.BYTES);
+        for (int position = low; position < this.keyCount && Arrays.equals(this.readKey(position), keyBytes); position++) {
+            this.read(row.clear(), this.rowsStart + (long) position * Integer.BYTES);
+
+            // A row that was changed since the file was written no longer has the key
+            if (!this.changedSongs.containsKey(row.getInt(0))) {
+                rows.insertSorted(row.getInt(0));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Gets the song name and artist of a row.
+     *
+     * @param row the row of the song
+     * @return a new array of the song name and the artist
+     * @throws IOException if the file cannot be read
+     */
+    public String[] getSong(int row) throws IOException {
+        if (row < 0 || row >= this.size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for length " + this.size);
+        }
+        String[] changed = this.changedSongs.get(row);
+        if (changed != null) {
+            return changed.clone();
+        }
+        ByteBuffer offsets = ByteBuffer.allocate(Long.BYTES * 2);
+        this.read(offsets, this.songOffsetsStart + (long) row * Long.BYTES);
+        ByteBuffer song = this.readRange(offsets.getLong(0), offsets.getLong(Long.BYTES), this.songBytesStart);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(song.array()));
+        return new String[]{in.readUTF(), in.readUTF()};
+    }
+
+    /**
+     * Reads every song, with the changes made since the file was written.
+     *
+     * @return the two-dimensional array containing songs and artists
+     * @throws IOException if the file cannot be read
+     */
+    public String[][] readAll() throws IOException {
+        String[][] songs = new String[this.size][];
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.path)))) {
+            in.skipNBytes(this.songBytesStart);
+            for (int row = 0; row < this.keyCount; row++) {
+                songs[row] = new String[]{in.readUTF(), in.readUTF()};
+            }
+        }
+        for (Map.Entry<Integer, String[]> entry : this.changedSongs.entrySet()) {
+            songs[entry.getKey()] = entry.getValue().clone();
+        }
+        return songs;
+    }
+
+    /**
+     * Adds a song after the last row and records it in the change log. The song is not checked for duplicates.
+     *
+     * @param songName the song name of the new row
+     * @param artist   the artist of the new row
+     * @return the row of the new song
+     * @throws IOException if the change log cannot be written
+     */
+    public int add(String songName, String artist) throws IOException {
+        int row = this.size;
+        this.appendChange(row, songName, artist);
+        return row;
+    }
+
+    /**
+     * Updates the song name and artist of a row and records the change in the change log.
+     * The song is not checked for duplicates.
+     *
+     * @param row      the row that is updated
+     * @param songName the song name after the update
+     * @param artist   the artist after the update
+     * @throws IOException if the change log cannot be written
+     */
+    public void update(int row, String songName, String artist) throws IOException {
+        if (row < 0 || row >= this.size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for length " + this.size);
+        }
+        this.appendChange(row, songName, artist);
+    }
+
+    /**
+     * Syncs the change log to the disk, so that the changes made since the last commit survive a crash.
+     *
+     * @throws IOException if the change log cannot be synced
+     */
+    public void commit() throws IOException {
+        this.logChannel.force(false);
+    }
+
+    /**
+     * Writes every song with its changes to a new key file and Bloom filter, and starts a new change log.
+     * If the new file cannot be written, the old file and its change log stay in use.
+     *
+     * @throws IOException if the files cannot be written or opened again
+     */
+    public void merge() throws IOException {
+        String[][] songs = this.readAll();
+        this.close();
+        try {
+            SongKeyFile.write(this.path, songs, this.falsePositiveRate);
+        } finally {
+            this.changedSongs.clear();
+            this.changedKeys.clear();
+            this.load();
+        }
+    }
+
+    /**
+     * Closes the file and its change log.
+     *
+     * @throws IOException if the files cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (this.logChannel != null) {
+                this.logChannel.close();
+            }
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    // Opens the file, its Bloom filter, and its change log
+    private void load() throws IOException {
+        this.channel = FileChannel.open(this.path, StandardOpenOption.READ);
+        this.logChannel = null;
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(this.channel, header, 0);
+            this.keyCount = header.getInt(Integer.BYTES);
+            if (header.getInt(0) != MAGIC || this.keyCount < 0) {
+                throw new IOException("Not a song key file.");
+            }
+            this.fileId = header.getLong(Integer.BYTES * 2);
+            this.falsePositiveRate = header.getDouble(Integer.BYTES * 2 + Long.BYTES);
+            this.rowsStart = HEADER_SIZE + (this.keyCount + 1L) * Long.BYTES;
+            this.keyBytesStart = this.rowsStart + (long) this.keyCount * Integer.BYTES;
+
+            // The songs start where the keys end, and their offsets are at the end of the file
+            ByteBuffer keyBytesLength = ByteBuffer.allocate(Long.BYTES);
+            readFully(this.channel, keyBytesLength, HEADER_SIZE + (long) this.keyCount * Long.BYTES);
+            this.songBytesStart = this.keyBytesStart + keyBytesLength.getLong(0);
+            this.songOffsetsStart = this.channel.size() - (this.keyCount + 1L) * Long.BYTES;
+            if (this.songBytesStart > this.songOffsetsStart) {
+                throw new IOException("Corrupt song key file.");
+            }
+            this.size = this.keyCount;
+            this.filter = this.loadFilter();
+            this.loadLog();
+        } catch (IOException e) {
+            try {
+                this.close();
+            } catch (IOException closeError) {
+                e.addSuppressed(closeError);
+            }
+            throw e;
+        }
+    }
+
+    // Loads the Bloom filter of the file, building it again from the keys if it belongs to another file
+    private BloomFilter loadFilter() throws IOException {
+        Path filterPath = filterPath(this.path);
+        if (Files.exists(filterPath)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(filterPath)))) {
+                if (in.readLong() == this.fileId) {
+                    return BloomFilter.read(in);
+                }
+            }
+        }
+
+        BloomFilter rebuilt = BloomFilter.create(this.keyCount, this.falsePositiveRate);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.path)))) {
+            in.skipNBytes(HEADER_SIZE);
+            long[] keyOffsets = new long[this.keyCount + 1];
+            for (int i = 0; i < keyOffsets.length; i++) {
+                keyOffsets[i] = in.readLong();
+            }
+            in.skipNBytes((long) this.keyCount * Integer.BYTES);
+            for (int i = 0; i < this.keyCount; i++) {
+                rebuilt.add(in.readNBytes((int) (keyOffsets[i + 1] - keyOffsets[i])));
+            }
+        }
+        SongKeyFile.writeFilter(this.path, this.fileId, rebuilt);
+        return rebuilt;
+    }
+
+    // Replays the change log if it belongs to the file, otherwise starts a new one
+    private void loadLog() throws IOException {
+        Path logPath = logPath(this.path);
+        this.logChannel = FileChannel.open(logPath,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_SIZE);
+        long validLength = 0;
+        if (this.logChannel.size() >= LOG_HEADER_SIZE) {
+            readFully(this.logChannel, header, 0);
+            if (header.getInt(0) == LOG_MAGIC && header.getLong(Integer.BYTES) == this.fileId) {
+                validLength = this.replayLog(logPath);
+            }
+        }
+        if (validLength == 0) {
+            header.clear();
+            header.putInt(LOG_MAGIC).putLong(this.fileId).flip();
+            this.logChannel.truncate(0);
+            while (header.hasRemaining()) {
+                this.logChannel.write(header, header.position());
+            }
+            this.logChannel.force(true);
+            validLength = LOG_HEADER_SIZE;
+        }
+
+        // Cut off the damaged tail so new changes are appended after the last good one
+        this.logChannel.truncate(validLength);
+        this.logChannel.position(validLength);
+    }
+
+    // Applies the changes of the log until the end or until a change is torn, and returns the length of the good part
+    private long replayLog(Path logPath) throws IOException {
+        long validLength = LOG_HEADER_SIZE;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(logPath)))) {
+            in.skipNBytes(LOG_HEADER_SIZE);
+            while (true) {
+                int length;
+                long checksum;
+                byte[] payload;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt() & 0xFFFFFFFFL;
+                    payload = in.readNBytes(Math.max(length, 0));
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length < 0 || payload.length != length || checksumOf(payload) != checksum) {
+                    break;
+                }
+                DataInputStream change = new DataInputStream(new ByteArrayInputStream(payload));
+                int row = change.readInt();
+                if (row < 0 || row > this.size) {
+                    break;
+                }
+                this.applyChange(row, change.readUTF(), change.readUTF());
+                validLength += Integer.BYTES * 2 + length;
+            }
+        }
+        return validLength;
+    }
+
+    // Writes a change to the change log, then applies it
+    private void appendChange(int row, String songName, String artist) throws IOException {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+        DataOutputStream payload = new DataOutputStream(payloadBytes);
+        payload.writeInt(row);
+        payload.writeUTF(songName);
+        payload.writeUTF(artist);
+        byte[] bytes = payloadBytes.toByteArray();
+
+        ByteBuffer change = ByteBuffer.allocate(Integer.BYTES * 2 + bytes.length);
+        change.putInt(bytes.length).putInt((int) checksumOf(bytes)).put(bytes).flip();
+        while (change.hasRemaining()) {
+            this.logChannel.write(change);
+        }
+        this.applyChange(row, songName, artist);
+    }
+
+    // Changes the song of a row in memory, adding the row if it is one past the last row
+    private void applyChange(int row, String songName, String artist) throws IOException {
+        if (row < this.size) {
+            String[] oldSong = this.getSong(row);
+            String oldKey = SongIndex.key(oldSong[0], ArtistKey.of(oldSong[1]));
+            IntList oldRows = this.changedKeys.get(oldKey);
+            if (oldRows != null && oldRows.removeSorted(row) && oldRows.size() == 0) {
+                this.changedKeys.remove(oldKey);
+            }
+        } else {
+            this.size++;
+        }
+        this.changedSongs.put(row, new String[]{songName, artist});
+        this.changedKeys.computeIfAbsent(SongIndex.key(songName, ArtistKey.of(artist)), k -> new IntList()).insertSorted(row);
+    }
+
+    // Reads the key at a position in the sorted order
+    private byte[] readKey(int position) throws IOException {
+        ByteBuffer offsets = ByteBuffer.allocate(Long.BYTES * 2);
+        this.read(offsets, HEADER_SIZE + (long) position * Long.BYTES);
+        return this.readRange(offsets.getLong(0), offsets.getLong(Long.BYTES), this.keyBytesStart).array();
+    }
+
+    // Reads the bytes between two offsets of a region of the file
+    private ByteBuffer readRange(long start, long end, long regionStart) throws IOException {
+        if (start < 0 || end < start || end - start > Integer.MAX_VALUE) {
+            throw new IOException("Corrupt song key file.");
+        }
+        ByteBuffer bytes = ByteBuffer.allocate((int) (end - start));
+        this.read(bytes, regionStart + start);
+        return bytes;
+    }
+
+    // Counts a read from the file and makes it
+    private void read(ByteBuffer buffer, long position) throws IOException {
+        this.fileReads++;
+        readFully(this.channel, buffer, position);
+    }
+
+    // Writes a Bloom filter and the ID of its file to a temporary file, then renames it into place
+    private static void writeFilter(Path path, long fileId, BloomFilter filter) throws IOException {
+        Path filterPath = filterPath(path);
+        Path tempPath = filterPath.resolveSibling(filterPath.getFileName() + TEMP_SUFFIX);
+        try (FileChannel tempChannel = FileChannel.open(tempPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(tempChannel)))) {
+            out.writeLong(fileId);
+            filter.write(out);
+            out.flush();
+            tempChannel.force(true);
+        }
+        Files.move(tempPath, filterPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        SongJournal.syncDirectory(filterPath.toAbsolutePath().getParent());
+    }
+
+    // Reads until a buffer is full
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read == -1) {
+                throw new EOFException("Unexpected end of the song key file.");
+            }
+            position += read;
+        }
+    }
+
+    // Computes the CRC-32 checksum of a change
+    private static long checksumOf(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+}
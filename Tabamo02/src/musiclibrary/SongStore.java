@@ -0,0 +1,417 @@
+package musiclibrary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A thread-safe music library that many threads can read and write at the same time.
+ * <p>
+ * Readers take an immutable {@link Snapshot} of the library without locking and always see a consistent library,
+ * even while songs are being added or updated. Writers are serialized, and each write copies only the segment of
+ * rows it touches and the small array of segment references before publishing a new snapshot.
+ * <p>
+ * Each snapshot also carries the rows of every artist, split into buckets by the hash of the artist. A write copies
+ * only the bucket array, the bucket of the artist, and the rows of that artist.
+ * <p>
+ * A store can also be given a {@link SongJournal}. Every write is then recorded in the journal, and
+ * {@link #save()} commits the writes recorded so far with a single sync.
+ */
+public class SongStore implements Closeable {
+    // Constants
+    private static final int SEGMENT_SHIFT = 10;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT; // 1024 rows
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+    private static final int ARTIST_BUCKETS = 1024;
+    private static final int ARTIST_MASK = ARTIST_BUCKETS - 1;
+
+    // Attributes
+    private volatile Snapshot snapshot;
+    private final SongIndex songIndex; // Only used by writers while holding the lock
+    private SongJournal journal; // Only used by writers while holding the lock, or null if writes are not saved
+
+    // The rows of an artist in ascending order, never changed once it is published
+    private record ArtistRows(ArtistKey key, int[] rows) {
+    }
+
+    /**
+     * An immutable view of the library at one point in time.
+     */
+    public static final class Snapshot {
+        private final String[][] segments; // Each segment holds song names and artists, interleaved
+        private final ArtistKey[][] keySegments; // The artist key of each row, precomputed when it is written
+        private final ArtistRows[][] artistBuckets; // The rows of each artist, bucketed by the hash of the artist key
+        private final int size;
+        private final long version;
+
+        private Snapshot(String[][] segments, ArtistKey[][] keySegments, ArtistRows[][] artistBuckets, int size, long version) {
+            this.segments = segments;
+            this.keySegments = keySegments;
+            this.artistBuckets = artistBuckets;
+            this.size = size;
+            this.version = version;
+        }
+
+        /**
+         * @return the number of songs in the snapshot
+         */
+        public int size() {
+            return this.size;
+        }
+
+        /**
+         * @return the number of writes published before this snapshot, which only ever grows
+         */
+        public long version() {
+            return this.version;
+        }
+
+        /**
+         * @param row the row of the song
+         * @return the song name of the song
+         */
+        public String getSongName(int row) {
+            this.checkRow(row);
+            return this.segments[row >>> SEGMENT_SHIFT][(row & SEGMENT_MASK) * 2];
+        }
+
+        /**
+         * @param row the row of the song
+         * @return the artist of the song
+         */
+        public String getArtist(int row) {
+            this.checkRow(row);
+            return this.segments[row >>> SEGMENT_SHIFT][(row & SEGMENT_MASK) * 2 + 1];
+        }
+
+        /**
+         * Finds the rows of the songs by an artist, ignoring case.
+         * <p>
+         * The rows are read from the artist index of the snapshot, so only the songs of the artist are visited.
+         *
+         * @param artist the artist to find
+         * @return the rows of the artist in ascending order
+         */
+        public IntList rowsOf(String artist) {
+            ArtistKey key = ArtistKey.of(artist);
+            IntList rows = new IntList();
+            ArtistRows artistRows = SongStore.findArtist(this.artistBuckets[key.hashCode() & ARTIST_MASK], key);
+            if (artistRows != null) {
+                for (int row : artistRows.rows()) {
+                    rows.add(row);
+                }
+            }
+            return rows;
+        }
+
+        /**
+         * Copies the snapshot into the two-dimensional array used by {@link MusicLibrary}.
+         *
+         * @return the two-dimensional array containing songs and artists
+         */
+        public String[][] toLibrary() {
+            String[][] library = new String[this.size][];
+            for (int row = 0; row < this.size; row++) {
+                library[row] = new String[]{this.getSongName(row), this.getArtist(row)};
+            }
+            return library;
+        }
+
+        // Throws an exception if a row is not in the snapshot
+        private void checkRow(int row) {
+            if (row < 0 || row >= this.size) {
+                throw new IndexOutOfBoundsException("Row " + row + " out of bounds for length " + this.size);
+            }
+        }
+    }
+
+    /**
+     * Creates a new empty {@code SongStore}.
+     */
+    public SongStore() {
+        this.snapshot = new Snapshot(new String[0][], new ArtistKey[0][], new ArtistRows[ARTIST_BUCKETS][], 0, 0);
+        this.songIndex = new SongIndex();
+    }
+
+    /**
+     * Creates a new {@code SongStore} that holds every song of a library in the same rows.
+     * <p>
+     * A library saved before duplicates were rejected may hold a song more than once. Every copy is kept, so the
+     * rows of the store match the saved rows, and only new songs are checked for duplicates.
+     *
+     * @param library the two-dimensional array containing songs and artists
+     */
+    public SongStore(String[][] library) {
+        this(library, null);
+    }
+
+    /**
+     * Creates a new {@code SongStore} that holds every song of a library and records every write in a journal.
+     *
+     * @param library the two-dimensional array containing songs and artists, as recovered from the journal
+     * @param journal the journal to record writes in, or null if writes are not saved
+     */
+    public SongStore(String[][] library, SongJournal journal) {
+        this.journal = journal;
+        // Fill the segments directly instead of copying them for every song
+        String[][] segments = new String[(library.length + SEGMENT_MASK) >>> SEGMENT_SHIFT][];
+        ArtistKey[][] keySegments = new ArtistKey[segments.length][];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new String[SEGMENT_SIZE * 2];
+            keySegments[i] = new ArtistKey[SEGMENT_SIZE];
+        }
+        this.songIndex = new SongIndex();
+        HashMap<ArtistKey, IntList> rowsByArtist = new HashMap<>();
+        int size = 0;
+        for (String[] row : library) {
+            ArtistKey artistKey = ArtistKey.of(row[1]);
+            String songKey = SongIndex.key(row[0], artistKey);
+            segments[size >>> SEGMENT_SHIFT][(size & SEGMENT_MASK) * 2] = row[0];
+            segments[size >>> SEGMENT_SHIFT][(size & SEGMENT_MASK) * 2 + 1] = row[1];
+            keySegments[size >>> SEGMENT_SHIFT][size & SEGMENT_MASK] = artistKey;
+            this.songIndex.add(songKey);
+            rowsByArtist.computeIfAbsent(artistKey, k -> new IntList()).add(size);
+            size++;
+        }
+
+        // Bucket the rows of every artist
+        ArtistRows[][] artistBuckets = new ArtistRows[ARTIST_BUCKETS][];
+        for (Map.Entry<ArtistKey, IntList> entry : rowsByArtist.entrySet()) {
+            IntList rows = entry.getValue();
+            int[] array = new int[rows.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = rows.get(i);
+            }
+            int bucket = entry.getKey().hashCode() & ARTIST_MASK;
+            ArtistRows[] old = (artistBuckets[bucket] == null) ? new ArtistRows[0] : artistBuckets[bucket];
+            artistBuckets[bucket] = Arrays.copyOf(old, old.length + 1);
+            artistBuckets[bucket][old.length] = new ArtistRows(entry.getKey(), array);
+        }
+        this.snapshot = new Snapshot(segments, keySegments, artistBuckets, size, 0);
+    }
+
+    // Methods
+
+    /**
+     * Gets the current snapshot of the library without locking.
+     *
+     * @return the current snapshot
+     */
+    public Snapshot snapshot() {
+        return this.snapshot;
+    }
+
+    /**
+     * Adds a song to the library unless a song with the same song name and artist, ignoring case, already exists.
+     *
+     * @param songName the song name of the new song
+     * @param artist   the artist of the new song
+     * @return the row of the new song, or -1 if the song already exists
+     */
+    public synchronized int add(String songName, String artist) {
+        ArtistKey artistKey = ArtistKey.of(artist);
+        String songKey = SongIndex.key(songName, artistKey);
+        if (this.songIndex.contains(songKey)) {
+            return -1;
+        }
+        Snapshot current = this.snapshot;
+        int row = current.size;
+        int segment = row >>> SEGMENT_SHIFT;
+
+        // Copy the segment references, adding a segment if the last one is full
+        String[][] segments = Arrays.copyOf(current.segments, segment + 1);
+        segments[segment] = (segment < current.segments.length)
+                ? Arrays.copyOf(current.segments[segment], SEGMENT_SIZE * 2)
+                : new String[SEGMENT_SIZE * 2];
+        segments[segment][(row & SEGMENT_MASK) * 2] = songName;
+        segments[segment][(row & SEGMENT_MASK) * 2 + 1] = artist;
+        ArtistKey[][] keySegments = Arrays.copyOf(current.keySegments, segment + 1);
+        keySegments[segment] = (segment < current.keySegments.length)
+                ? Arrays.copyOf(current.keySegments[segment], SEGMENT_SIZE)
+                : new ArtistKey[SEGMENT_SIZE];
+        keySegments[segment][row & SEGMENT_MASK] = artistKey;
+
+        ArtistRows[][] artistBuckets = SongStore.withRow(current.artistBuckets, artistKey, row);
+
+        this.songIndex.add(songKey);
+        this.snapshot = new Snapshot(segments, keySegments, artistBuckets, row + 1, current.version + 1);
+        if (this.journal != null) {
+            try {
+                this.journal.appendAdd(songName, artist);
+            } catch (IOException e) {
+                this.stopSaving(e);
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Updates the song name and artist of a song unless the result would duplicate another song.
+     *
+     * @param row      the row of the song to update
+     * @param songName the new song name
+     * @param artist   the new artist
+     * @return true if the song was updated, otherwise false
+     */
+    public synchronized boolean update(int row, String songName, String artist) {
+        Snapshot current = this.snapshot;
+        String oldSongName = current.getSongName(row);
+        ArtistKey oldArtistKey = current.keySegments[row >>> SEGMENT_SHIFT][row & SEGMENT_MASK];
+        ArtistKey artistKey = ArtistKey.of(artist);
+        String songKey = SongIndex.key(songName, artistKey);
+        if (this.songIndex.hasOtherRow(songKey, row)) {
+            return false;
+        }
+
+        // Copy only the segment that holds the row
+        int segment = row >>> SEGMENT_SHIFT;
+        String[][] segments = current.segments.clone();
+        segments[segment] = current.segments[segment].clone();
+        segments[segment][(row & SEGMENT_MASK) * 2] = songName;
+        segments[segment][(row & SEGMENT_MASK) * 2 + 1] = artist;
+        ArtistKey[][] keySegments = current.keySegments.clone();
+        keySegments[segment] = current.keySegments[segment].clone();
+        keySegments[segment][row & SEGMENT_MASK] = artistKey;
+        ArtistRows[][] artistBuckets = current.artistBuckets;
+        if (!artistKey.equals(oldArtistKey)) {
+            artistBuckets = SongStore.withRow(SongStore.withoutRow(artistBuckets, oldArtistKey, row), artistKey, row);
+        }
+
+        this.songIndex.update(row, SongIndex.key(oldSongName, oldArtistKey), songKey);
+        this.snapshot = new Snapshot(segments, keySegments, artistBuckets, current.size, current.version + 1);
+        if (this.journal != null) {
+            try {
+                this.journal.appendUpdate(row, songName, artist);
+            } catch (IOException e) {
+                this.stopSaving(e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Commits the writes recorded in the journal since the last save, and takes a snapshot of the library
+     * once the journal is long enough. Does nothing if writes are not saved.
+     */
+    public synchronized void save() {
+        if (this.journal == null) {
+            return;
+        }
+        try {
+            this.journal.commit();
+            if (this.journal.shouldCompact()) {
+                this.journal.snapshot(this.snapshot.toLibrary());
+            }
+        } catch (IOException e) {
+            this.stopSaving(e);
+        }
+    }
+
+    /**
+     * Saves the recorded writes and closes the journal. The store can still be read and written afterwards,
+     * but its writes are no longer saved.
+     *
+     * @throws IOException if the journal cannot be written or closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.journal == null) {
+            return;
+        }
+        SongJournal closedJournal = this.journal;
+        this.journal = null;
+        closedJournal.close();
+    }
+
+    /**
+     * Finds the row of a song.
+     *
+     * @param songName the song name to find
+     * @param artist   the artist of the song to find, ignoring case
+     * @return the row of the song, otherwise -1
+     */
+    public synchronized int find(String songName, String artist) {
+        return this.songIndex.find(SongIndex.key(songName, ArtistKey.of(artist)));
+    }
+
+    // Stops saving the library after a write could not be recorded
+    // The journal would be missing the write, so the writes after it would be replayed onto the wrong rows
+    private void stopSaving(IOException e) {
+        System.out.println("Could not save the library, changes will no longer be saved: " + e.getMessage());
+        try {
+            this.journal.discard();
+        } catch (IOException closeError) {
+            System.out.println("Could not close the saved library: " + closeError.getMessage());
+        }
+        this.journal = null;
+    }
+
+    // Finds the rows of an artist in a bucket, or null if the artist has no songs
+    private static ArtistRows findArtist(ArtistRows[] bucket, ArtistKey key) {
+        if (bucket != null) {
+            for (ArtistRows artistRows : bucket) {
+                if (artistRows.key().equals(key)) {
+                    return artistRows;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Copies the buckets with a row added to the rows of an artist, copying only the bucket of the artist
+    private static ArtistRows[][] withRow(ArtistRows[][] buckets, ArtistKey key, int row) {
+        int bucket = key.hashCode() & ARTIST_MASK;
+        ArtistRows[] oldBucket = (buckets[bucket] == null) ? new ArtistRows[0] : buckets[bucket];
+        ArtistRows old = SongStore.findArtist(oldBucket, key);
+        ArtistRows[] newBucket;
+        if (old == null) {
+            newBucket = Arrays.copyOf(oldBucket, oldBucket.length + 1);
+            newBucket[oldBucket.length] = new ArtistRows(key, new int[]{row});
+        } else {
+            int position = -Arrays.binarySearch(old.rows(), row) - 1;
+            int[] rows = new int[old.rows().length + 1];
+            System.arraycopy(old.rows(), 0, rows, 0, position);
+            rows[position] = row;
+            System.arraycopy(old.rows(), position, rows, position + 1, old.rows().length - position);
+            newBucket = SongStore.replace(oldBucket, old, new ArtistRows(old.key(), rows));
+        }
+        ArtistRows[][] newBuckets = buckets.clone();
+        newBuckets[bucket] = newBucket;
+        return newBuckets;
+    }
+
+    // Copies the buckets with a row removed from the rows of an artist, dropping the artist once it has no rows
+    private static ArtistRows[][] withoutRow(ArtistRows[][] buckets, ArtistKey key, int row) {
+        int bucket = key.hashCode() & ARTIST_MASK;
+        ArtistRows old = SongStore.findArtist(buckets[bucket], key);
+        int position = Arrays.binarySearch(old.rows(), row);
+        ArtistRows[] newBucket;
+        if (old.rows().length == 1) {
+            newBucket = SongStore.replace(buckets[bucket], old, null);
+        } else {
+            int[] rows = new int[old.rows().length - 1];
+            System.arraycopy(old.rows(), 0, rows, 0, position);
+            System.arraycopy(old.rows(), position + 1, rows, position, rows.length - position);
+            newBucket = SongStore.replace(buckets[bucket], old, new ArtistRows(old.key(), rows));
+        }
+        ArtistRows[][] newBuckets = buckets.clone();
+        newBuckets[bucket] = newBucket;
+        return newBuckets;
+    }
+
+    // Copies a bucket with one entry replaced, or removed if the replacement is null
+    private static ArtistRows[] replace(ArtistRows[] bucket, ArtistRows old, ArtistRows replacement) {
+        ArtistRows[] newBucket = new ArtistRows[(replacement == null) ? bucket.length - 1 : bucket.length];
+        int j = 0;
+        for (ArtistRows artistRows : bucket) {
+            if (artistRows != old) {
+                newBucket[j++] = artistRows;
+            } else if (replacement != null) {
+                newBucket[j++] = replacement;
+            }
+        }
+        return newBucket;
+    }
+}
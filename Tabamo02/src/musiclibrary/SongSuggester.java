@@ -0,0 +1,105 @@
+package musiclibrary;
+
+import java.util.List;
+
+/**
+ * Suggests artists and song names that are close to a mistyped query, ignoring case.
+ * <p>
+ * The distinct artists and song names are kept in BK-trees, so a query is never compared against every song.
+ */
+public class SongSuggester {
+    // Constants
+    private static final int SHORT_QUERY_LENGTH = 4;
+    private static final int MAX_SUGGESTIONS = 5;
+
+    // Attributes
+    private final BKTree artists;
+    private final BKTree songNames;
+    private int size;
+
+    /**
+     * Creates a new empty {@code SongSuggester}.
+     */
+    public SongSuggester() {
+        this.artists = new BKTree();
+        this.songNames = new BKTree();
+        this.size = 0;
+    }
+
+    // Getter
+
+    /**
+     * @return the number of rows that have been indexed
+     */
+    public int size() {
+        return this.size;
+    }
+
+    // Methods
+
+    /**
+     * Suggests the artists closest to a query.
+     *
+     * @param query the mistyped artist
+     * @return up to 5 artists, closest first
+     */
+    public List<String> suggestArtists(String query) {
+        return this.artists.search(query, maxDistanceFor(query), MAX_SUGGESTIONS);
+    }
+
+    /**
+     * Suggests the song names closest to a query.
+     *
+     * @param query the mistyped song name
+     * @return up to 5 song names, closest first
+     */
+    public List<String> suggestSongNames(String query) {
+        return this.songNames.search(query, maxDistanceFor(query), MAX_SUGGESTIONS);
+    }
+
+    /**
+     * Indexes a song that was appended to the library.
+     *
+     * @param songName the song name of the new row
+     * @param artist   the artist of the new row
+     */
+    public void add(String songName, String artist) {
+        this.songNames.add(songName);
+        this.artists.add(artist);
+        this.size++;
+    }
+
+    /**
+     * Re-indexes a row whose song name or artist was changed.
+     *
+     * @param oldSongName the song name before the update
+     * @param oldArtist   the artist before the update
+     * @param newSongName the song name after the update
+     * @param newArtist   the artist after the update
+     */
+    public void update(String oldSongName, String oldArtist, String newSongName, String newArtist) {
+        this.songNames.remove(oldSongName);
+        this.songNames.add(newSongName);
+        this.artists.remove(oldArtist);
+        this.artists.add(newArtist);
+    }
+
+    /**
+     * Discards the index and indexes every row of the library again.
+     *
+     * @param library the two-dimensional array containing songs and artists
+     */
+    public void rebuild(String[][] library) {
+        this.artists.clear();
+        this.songNames.clear();
+        this.size = 0;
+        for (String[] row : library) {
+            this.add(row[0], row[1]);
+        }
+    }
+
+    // Allows one typo in short queries and two typos in longer queries
+    private static int maxDistanceFor(String query) {
+        return (query.length() <= SHORT_QUERY_LENGTH) ? 1 : 2;
+    }
+}
@@ -0,0 +1,174 @@
+package musiclibrary;
+
+import java.util.Arrays;
+
+/**
+ * A cached ordering of the rows of a music library sorted by song name or by artist, ignoring case.
+ * <p>
+ * The ordering is sorted the first time it is needed. After that, added and updated rows are moved into place with a
+ * binary search, so that listing any page of the sorted library only costs the size of the page.
+ * Ties are broken by the other column and then by row, so every row has exactly one position.
+ */
+public class SortedOrder {
+    // Attributes
+    private final int column;
+    private final IntList rows;
+    private boolean built;
+    private int size;
+
+    // Creates an empty ordering that sorts by a column of the library
+    private SortedOrder(int column) {
+        this.column = column;
+        this.rows = new IntList();
+        this.built = false;
+        this.size = 0;
+    }
+
+    /**
+     * @return a new ordering of the library by song name, then by artist
+     */
+    public static SortedOrder bySongName() {
+        return new SortedOrder(0);
+    }
+
+    /**
+     * @return a new ordering of the library by artist, then by song name
+     */
+    public static SortedOrder byArtist() {
+        return new SortedOrder(1);
+    }
+
+    // Getter
+
+    /**
+     * @return the number of rows that have been ordered
+     */
+    public int size() {
+        return this.size;
+    }
+
+    // Methods
+
+    /**
+     * Gets the rows of the library in sorted order, sorting them first if this is the first time they are needed.
+     * <p>
+     * The returned list is owned by the ordering and must not be modified.
+     *
+     * @param library the two-dimensional array containing songs and artists
+     * @return the rows in sorted order
+     */
+    public IntList rows(String[][] library) {
+        if (!this.built) {
+            this.sort(library);
+        }
+        return this.rows;
+    }
+
+    /**
+     * Moves a row that was appended to the library into place.
+     *
+     * @param library the two-dimensional array containing songs and artists, including the new row
+     */
+    public void add(String[][] library) {
+        int row = this.size++;
+        if (this.built) {
+            this.rows.insert(this.positionOf(library, library[row][0], library[row][1], row), row);
+        }
+    }
+
+    /**
+     * Moves a row whose song name or artist was changed into its new place.
+     *
+     * @param library     the two-dimensional array containing songs and artists, after the update
+     * @param row         the row that was updated
+     * @param oldSongName the song name before the update
+     * @param oldArtist   the artist before the update
+     */
+    public void update(String[][] library, int row, String oldSongName, String oldArtist) {
+        if (!this.built) {
+            return;
+        }
+        this.rows.removeAt(this.positionOf(library, oldSongName, oldArtist, row));
+        this.rows.insert(this.positionOf(library, library[row][0], library[row][1], row), row);
+    }
+
+    /**
+     * Forgets the ordering so that it is sorted again the next time it is needed.
+     *
+     * @param library the two-dimensional array containing songs and artists
+     */
+    public void rebuild(String[][] library) {
+        this.rows.clear();
+        this.built = false;
+        this.size = library.length;
+    }
+
+    // Sorts every row, case-folding each song name and artist only once
+    private void sort(String[][] library) {
+        String[] primary = new String[library.length];
+        String[] secondary = new String[library.length];
+        Integer[] order = new Integer[library.length];
+        for (int row = 0; row < library.length; row++) {
+            primary[row] = SongIndex.foldCase(library[row][this.column]);
+            secondary[row] = SongIndex.foldCase(library[row][1 - this.column]);
+            order[row] = row;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int result = primary[a].compareTo(primary[b]);
+            if (result == 0) {
+                result = secondary[a].compareTo(secondary[b]);
+            }
+            return (result != 0) ? result : this.compare(library[a][0], library[a][1], a, library[b][0], library[b][1], b);
+        });
+
+        this.rows.clear();
+        for (Integer row : order) {
+            this.rows.add(row);
+        }
+        this.built = true;
+        this.size = library.length;
+    }
+
+    // Finds the position of a row with the given values, or the position where it belongs if it is not ordered yet
+    private int positionOf(String[][] library, String songName, String artist, int row) {
+        int low = 0;
+        int high = this.rows.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int other = this.rows.get(mid);
+            // The row itself may already hold its new values in the library
+            if (other == row) {
+                return mid;
+            }
+            int result = this.compare(library[other][0], library[other][1], other, songName, artist, row);
+            if (result < 0) {
+                low = mid + 1;
+            } else if (result > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return low;
+    }
+
+    // Compares two rows by their sort column and the other column ignoring case, then exactly, then by row
+    private int compare(String songNameA, String artistA, int rowA, String songNameB, String artistB, int rowB) {
+        String primaryA = (this.column == 0) ? songNameA : artistA;
+        String primaryB = (this.column == 0) ? songNameB : artistB;
+        String secondaryA = (this.column == 0) ? artistA : songNameA;
+        String secondaryB = (this.column == 0) ? artistB : songNameB;
+
+        int result = SongIndex.foldCase(primaryA).compareTo(SongIndex.foldCase(primaryB));
+        if (result == 0) {
+            result = SongIndex.foldCase(secondaryA).compareTo(SongIndex.foldCase(secondaryB));
+        }
+        if (result == 0) {
+            result = primaryA.compareTo(primaryB);
+        }
+        if (result == 0) {
+            result = secondaryA.compareTo(secondaryB);
+        }
+        return (result != 0) ? result : Integer.compare(rowA, rowB);
+    }
+}
@@ -0,0 +1,259 @@
+package musiclibrary;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Stores many strings as UTF-8 bytes in large shared {@code byte[]} chunks instead of as separate {@code String}s.
+ * <p>
+ * Each string is written once, prefixed with its length, and is then addressed by a single {@code int}: the chunk
+ * number in the high bits and the offset in the chunk in the low bits. Strings can be compared and matched ignoring
+ * case directly on their bytes without decoding them.
+ */
+public class StringArena {
+    // Constants
+    private static final int CHUNK_SHIFT = 20;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT; // 1 MiB
+    private static final int OFFSET_MASK = CHUNK_SIZE - 1;
+    private static final int MAX_CHUNKS = 1 << (Integer.SIZE - 1 - CHUNK_SHIFT);
+
+    // Attributes
+    private byte[][] chunks;
+    private int chunkCount;
+    private int position; // The next free offset in the last chunk
+    private long bytesUsed;
+
+    /**
+     * Creates a new empty {@code StringArena}.
+     */
+    public StringArena() {
+        this.chunks = new byte[4][];
+        this.chunkCount = 0;
+        this.position = CHUNK_SIZE; // Forces the first string to start a chunk
+        this.bytesUsed = 0;
+    }
+
+    // Getters
+
+    /**
+     * @return the number of bytes used by the strings and their lengths
+     */
+    public long getBytesUsed() {
+        return this.bytesUsed;
+    }
+
+    /**
+     * @return the number of bytes allocated for the chunks
+     */
+    public long getBytesAllocated() {
+        long allocated = 0;
+        for (int i = 0; i < this.chunkCount; i++) {
+            allocated += this.chunks[i].length;
+        }
+        return allocated;
+    }
+
+    // Methods
+
+    /**
+     * Adds a string to the arena.
+     *
+     * @param s the string to add
+     * @return the address of the string
+     */
+    public int add(String s) {
+        return this.add(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Adds a string that is already encoded to the arena.
+     *
+     * @param bytes the UTF-8 bytes of the string, such as from {@link #encode(String)}
+     * @return the address of the string
+     */
+    public int add(byte[] bytes) {
+        int needed = varIntSize(bytes.length) + bytes.length;
+
+        // A string never spans two chunks, so start a new chunk if it does not fit, sized for the string if it is huge
+        if (this.position + needed > CHUNK_SIZE) {
+            this.newChunk(Math.max(CHUNK_SIZE, needed));
+        }
+        int address = ((this.chunkCount - 1) << CHUNK_SHIFT) | this.position;
+        byte[] chunk = this.chunks[this.chunkCount - 1];
+        int offset = writeVarInt(chunk, this.position, bytes.length);
+        System.arraycopy(bytes, 0, chunk, offset, bytes.length);
+        this.position = offset + bytes.length;
+        this.bytesUsed += needed;
+        return address;
+    }
+
+    /**
+     * Decodes a string of the arena.
+     *
+     * @param address the address of the string
+     * @return the string
+     */
+    public String get(int address) {
+        byte[] chunk = this.chunkOf(address);
+        int offset = address & OFFSET_MASK;
+        int length = readVarInt(chunk, offset);
+        return new String(chunk, offset + varIntSize(length), length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param address the address of the string
+     * @return the length of the string in UTF-8 bytes
+     */
+    public int byteLength(int address) {
+        return readVarInt(this.chunkOf(address), address & OFFSET_MASK);
+    }
+
+    /**
+     * Compares two strings of the arena by their UTF-8 bytes, which orders them by code point.
+     *
+     * @param a the address of the first string
+     * @param b the address of the second string
+     * @return a negative number, zero, or a positive number if the first string is less than, equal to, or greater
+     * than the second string
+     */
+    public int compare(int a, int b) {
+        byte[] chunkA = this.chunkOf(a);
+        byte[] chunkB = this.chunkOf(b);
+        int lengthA = readVarInt(chunkA, a & OFFSET_MASK);
+        int lengthB = readVarInt(chunkB, b & OFFSET_MASK);
+        int fromA = (a & OFFSET_MASK) + varIntSize(lengthA);
+        int fromB = (b & OFFSET_MASK) + varIntSize(lengthB);
+        return Arrays.compareUnsigned(chunkA, fromA, fromA + lengthA, chunkB, fromB, fromB + lengthB);
+    }
+
+    /**
+     * Checks if a string of the arena is exactly equal to UTF-8 bytes.
+     *
+     * @param address the address of the string
+     * @param utf8    the UTF-8 bytes to compare with, such as from {@link #encode(String)}
+     * @return true if they are equal, otherwise false
+     */
+    public boolean equals(int address, byte[] utf8) {
+        byte[] chunk = this.chunkOf(address);
+        int length = readVarInt(chunk, address & OFFSET_MASK);
+        int from = (address & OFFSET_MASK) + varIntSize(length);
+        return Arrays.equals(chunk, from, from + length, utf8, 0, utf8.length);
+    }
+
+    /**
+     * Checks if a string of the arena is equal to UTF-8 bytes when ignoring case, following the same rule as
+     * {@link String#equalsIgnoreCase(String)}. Only strings that contain non-ASCII characters are decoded.
+     *
+     * @param address the address of the string
+     * @param utf8    the UTF-8 bytes to compare with, such as from {@link #encode(String)}
+     * @return true if they are equal ignoring case, otherwise false
+     */
+    public boolean equalsIgnoreCase(int address, byte[] utf8) {
+        byte[] chunk = this.chunkOf(address);
+        int length = readVarInt(chunk, address & OFFSET_MASK);
+        int from = (address & OFFSET_MASK) + varIntSize(length);
+        boolean ascii = true;
+        if (length == utf8.length) {
+            for (int i = 0; i < length; i++) {
+                byte x = chunk[from + i];
+                byte y = utf8[i];
+                if ((x | y) < 0) {
+                    ascii = false;
+                    break;
+                }
+                if (x != y && toLowerAscii(x) != toLowerAscii(y)) {
+                    return false;
+                }
+            }
+            if (ascii) {
+                return true;
+            }
+        } else if (isAscii(chunk, from, length) && isAscii(utf8, 0, utf8.length)) {
+            // ASCII strings of different lengths can never be equal
+            return false;
+        }
+
+        // Case folding can change the number of UTF-8 bytes of non-ASCII characters, so compare the decoded strings
+        String s = new String(chunk, from, length, StandardCharsets.UTF_8);
+        return s.equalsIgnoreCase(new String(utf8, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Encodes a string for {@link #add(byte[])}, {@link #equals(int, byte[])}, and
+     * {@link #equalsIgnoreCase(int, byte[])}, so that a string is only encoded once.
+     *
+     * @param s the string to encode
+     * @return the UTF-8 bytes of the string
+     */
+    public static byte[] encode(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Adds a chunk of at least the given size, growing the array of chunks if needed
+    private void newChunk(int size) {
+        if (this.chunkCount == MAX_CHUNKS) {
+            throw new IllegalStateException("The arena is full");
+        }
+        if (this.chunkCount == this.chunks.length) {
+            this.chunks = Arrays.copyOf(this.chunks, this.chunks.length * 2);
+        }
+        this.chunks[this.chunkCount++] = new byte[size];
+        this.position = 0;
+    }
+
+    // Gets the chunk that holds an address
+    private byte[] chunkOf(int address) {
+        int chunk = address >>> CHUNK_SHIFT;
+        if (address < 0 || chunk >= this.chunkCount) {
+            throw new IllegalArgumentException("Invalid address " + address);
+        }
+        return this.chunks[chunk];
+    }
+
+    // Lengths are stored as 7 bits per byte, so strings shorter than 128 bytes only need one byte for their length
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value >>>= 7) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    // Writes a length and returns the offset after it
+    private static int writeVarInt(byte[] bytes, int offset, int value) {
+        while ((value & ~0x7F) != 0) {
+            bytes[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[offset++] = (byte) value;
+        return offset;
+    }
+
+    // Reads a length
+    private static int readVarInt(byte[] bytes, int offset) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[offset++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    // Checks if a range of bytes is only ASCII characters
+    private static boolean isAscii(byte[] bytes, int from, int length) {
+        for (int i = from; i < from + length; i++) {
+            if (bytes[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Lowercases an ASCII character
+    private static int toLowerAscii(byte b) {
+        return (b >= 'A' && b <= 'Z') ? b + ('a' - 'A') : b;
+    }
+}
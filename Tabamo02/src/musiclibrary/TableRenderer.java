@@ -0,0 +1,130 @@
+package musiclibrary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Renders the 2-column views of a music library into a reusable buffer and writes it to an output stream in large
+ * blocks instead of formatting and printing every row on its own. Each block is encoded into a reused byte buffer,
+ * so writing a block does not allocate.
+ * <p>
+ * The buffers start small and only grow to the size of the rows being rendered, up to one block, so rendering
+ * a single page stays cheap.
+ * <p>
+ * The output is the same as padding each column with {@code String.format("%-" + width + "s", value)} and printing
+ * each row with {@code System.out.println()}.
+ */
+public class TableRenderer {
+    // Constants
+    private static final int BLOCK_SIZE = 1 << 16;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    // Attributes
+    private final OutputStream out;
+    private final CharsetEncoder encoder;
+    private final StringBuilder buffer;
+    private CharBuffer chars; // The characters of the block being encoded
+    private ByteBuffer bytes; // The encoded bytes waiting to be written
+
+    /**
+     * Creates a new instance of a {@code TableRenderer} that writes to an output stream.
+     *
+     * @param out     the output stream to write the table to
+     * @param charset the charset used to encode the table
+     */
+    public TableRenderer(OutputStream out, Charset charset) {
+        this.out = out;
+        this.encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.buffer = new StringBuilder();
+        this.chars = CharBuffer.allocate(0);
+        this.bytes = ByteBuffer.allocate(0);
+    }
+
+    // Methods
+
+    /**
+     * Adds a row with a song name and an artist, each left-justified and padded with spaces to its column width.
+     *
+     * @param songName    the song name in the first column
+     * @param songWidth   the width of the first column
+     * @param artist      the artist in the second column
+     * @param artistWidth the width of the second column
+     */
+    public void row(String songName, int songWidth, String artist, int artistWidth) {
+        this.pad(songName, songWidth);
+        this.pad(artist, artistWidth);
+        this.buffer.append(LINE_SEPARATOR);
+
+        // Write the buffer once it holds a full block
+        if (this.buffer.length() >= BLOCK_SIZE) {
+            this.writeBuffer();
+        }
+    }
+
+    /**
+     * Writes every buffered row to the output stream and flushes it.
+     */
+    public void flush() {
+        this.writeBuffer();
+        try {
+            this.out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Appends a value followed by spaces until it fills the width, like the "%-<width>s" format
+    private void pad(String value, int width) {
+        this.buffer.append(value);
+        for (int i = value.length(); i < width; i++) {
+            this.buffer.append(' ');
+        }
+    }
+
+    // Encodes the buffer and writes it to the output stream, replacing characters the charset cannot encode
+    // like String.getBytes() does
+    private void writeBuffer() {
+        int length = this.buffer.length();
+        if (length == 0) {
+            return;
+        }
+        if (length > this.chars.capacity()) {
+            this.chars = CharBuffer.allocate(length);
+        }
+        if (this.bytes.capacity() < BLOCK_SIZE && this.bytes.capacity() < length * this.encoder.maxBytesPerChar()) {
+            this.bytes = ByteBuffer.allocate((int) Math.min(BLOCK_SIZE, length * this.encoder.maxBytesPerChar()));
+        }
+        this.buffer.getChars(0, length, this.chars.array(), 0);
+        this.buffer.setLength(0);
+        this.chars.clear().limit(length);
+
+        // Write the bytes whenever the byte buffer fills up
+        this.encoder.reset();
+        while (this.encoder.encode(this.chars, this.bytes, true) == CoderResult.OVERFLOW) {
+            this.writeBytes();
+        }
+        while (this.encoder.flush(this.bytes) == CoderResult.OVERFLOW) {
+            this.writeBytes();
+        }
+        this.writeBytes();
+    }
+
+    // Writes the encoded bytes to the output stream and empties the byte buffer
+    private void writeBytes() {
+        try {
+            this.out.write(this.bytes.array(), 0, this.bytes.position());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.bytes.clear();
+    }
+}
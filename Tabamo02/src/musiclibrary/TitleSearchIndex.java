@@ -0,0 +1,216 @@
+package musiclibrary;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A search index over the song names of a music library, ignoring case.
+ * <p>
+ * Prefix queries walk a sorted map of the case-folded song names. Substring queries intersect the row lists of the
+ * trigrams (the 3-character substrings) of the query in an inverted index and only check the rows in every list.
+ * The 1- and 2-character substrings of the song names are indexed too, so shorter queries read their row list directly.
+ */
+public class TitleSearchIndex {
+    // Constants
+    private static final int GRAM_LENGTH = 3;
+
+    // Attributes
+    private final TreeMap<String, IntList> rowsByTitle;
+    private final HashMap<String, IntList> rowsByGram;
+    private int size;
+
+    /**
+     * Creates a new empty {@code TitleSearchIndex}.
+     */
+    public TitleSearchIndex() {
+        this.rowsByTitle = new TreeMap<>();
+        this.rowsByGram = new HashMap<>();
+        this.size = 0;
+    }
+
+    // Getter
+
+    /**
+     * @return the number of rows that have been indexed
+     */
+    public int size() {
+        return this.size;
+    }
+
+    // Methods
+
+    /**
+     * Finds the rows whose song name is exactly the given song name.
+     *
+     * @param songName the song name to find, compared exactly
+     * @param library  the two-dimensional array containing songs and artists
+     * @return the rows with the song name in ascending order
+     */
+    public IntList rowsWithSongName(String songName, String[][] library) {
+        IntList result = new IntList();
+        IntList rows = this.rowsByTitle.get(SongIndex.foldCase(songName));
+        if (rows != null) {
+            for (int i = 0; i < rows.size(); i++) {
+                if (library[rows.get(i)][0].equals(songName)) {
+                    result.add(rows.get(i));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the rows whose song name starts with a prefix, ignoring case.
+     *
+     * @param prefix the prefix to search for
+     * @param limit  the maximum number of rows to return
+     * @return the matching rows ordered by song name
+     */
+    public IntList searchPrefix(String prefix, int limit) {
+        IntList result = new IntList();
+        String key = SongIndex.foldCase(prefix);
+        for (Map.Entry<String, IntList> entry : this.rowsByTitle.tailMap(key, true).entrySet()) {
+            if (!entry.getKey().startsWith(key)) {
+                break;
+            }
+            IntList rows = entry.getValue();
+            for (int i = 0; i < rows.size(); i++) {
+                if (result.size() == limit) {
+                    return result;
+                }
+                result.add(rows.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the rows whose song name contains a substring, ignoring case.
+     *
+     * @param query   the substring to search for
+     * @param library the two-dimensional array containing songs and artists
+     * @param limit   the maximum number of rows to return
+     * @return the matching rows in ascending order
+     */
+    public IntList searchSubstring(String query, String[][] library, int limit) {
+        IntList result = new IntList();
+        String key = SongIndex.foldCase(query);
+
+        // A query shorter than a trigram is itself an indexed gram, and every row in its list contains it
+        if (key.length() < GRAM_LENGTH) {
+            IntList rows = this.rowsByGram.get(key);
+            for (int i = 0; rows != null && i < rows.size() && result.size() < limit; i++) {
+                result.add(rows.get(i));
+            }
+            return result;
+        }
+
+        // Look up the row list of every trigram of the query, sorted from the rarest to the most common
+        HashSet<String> grams = gramsOf(key, GRAM_LENGTH);
+        IntList[] gramRows = new IntList[grams.size()];
+        int g = 0;
+        for (String gram : grams) {
+            IntList rows = this.rowsByGram.get(gram);
+            if (rows == null) {
+                return result;
+            }
+            gramRows[g++] = rows;
+        }
+        Arrays.sort(gramRows, Comparator.comparingInt(IntList::size));
+
+        // Keep the rows of the rarest trigram that have every other trigram and actually contain the query
+        IntList candidates = gramRows[0];
+        for (int i = 0; i < candidates.size() && result.size() < limit; i++) {
+            int row = candidates.get(i);
+            boolean hasEveryGram = true;
+            for (int j = 1; j < gramRows.length && hasEveryGram; j++) {
+                hasEveryGram = gramRows[j].containsSorted(row);
+            }
+            if (hasEveryGram && SongIndex.foldCase(library[row][0]).contains(key)) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Indexes a song that was appended to the library.
+     *
+     * @param songName the song name of the new row
+     */
+    public void add(String songName) {
+        this.insert(this.size++, songName);
+    }
+
+    /**
+     * Re-indexes a row whose song name was changed.
+     *
+     * @param row         the row that was updated
+     * @param oldSongName the song name before the update
+     * @param newSongName the song name after the update
+     */
+    public void update(int row, String oldSongName, String newSongName) {
+        if (oldSongName.equals(newSongName)) {
+            return;
+        }
+
+        // Remove the row from the old song name and its grams, forgetting lists that become empty
+        String oldKey = SongIndex.foldCase(oldSongName);
+        removeRow(this.rowsByTitle, oldKey, row);
+        for (int length = 1; length <= GRAM_LENGTH; length++) {
+            for (String gram : gramsOf(oldKey, length)) {
+                removeRow(this.rowsByGram, gram, row);
+            }
+        }
+        this.insert(row, newSongName);
+    }
+
+    /**
+     * Discards the index and indexes every row of the library again.
+     *
+     * @param library the two-dimensional array containing songs and artists
+     */
+    public void rebuild(String[][] library) {
+        this.rowsByTitle.clear();
+        this.rowsByGram.clear();
+        this.size = 0;
+        for (String[] row : library) {
+            this.add(row[0]);
+        }
+    }
+
+    // Adds a row to its song name and its grams of every length up to a trigram
+    private void insert(int row, String songName) {
+        String key = SongIndex.foldCase(songName);
+        this.rowsByTitle.computeIfAbsent(key, k -> new IntList()).insertSorted(row);
+        for (int length = 1; length <= GRAM_LENGTH; length++) {
+            for (String gram : gramsOf(key, length)) {
+                this.rowsByGram.computeIfAbsent(gram, k -> new IntList()).insertSorted(row);
+            }
+        }
+    }
+
+    // Removes a row from a list in a map, removing the list when it becomes empty
+    private static void removeRow(Map<String, IntList> map, String key, int row) {
+        IntList rows = map.get(key);
+        if (rows != null) {
+            rows.removeSorted(row);
+            if (rows.size() == 0) {
+                map.remove(key);
+            }
+        }
+    }
+
+    // Gets the distinct substrings of a case-folded string that have the given length
+    private static HashSet<String> gramsOf(String key, int length) {
+        HashSet<String> grams = new HashSet<>();
+        for (int i = 0; i + length <= key.length(); i++) {
+            grams.add(key.substring(i, i + length));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,199 @@
+package benchmark;
+
+import restaurant.ConcurrentRestaurant;
+import restaurant.Customer;
+import restaurant.CustomerIdAllocator;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A program that adds, searches, and deletes customer records of a {@code ConcurrentRestaurant} from many threads
+ * at once, then checks that no customer ID was issued twice and that no record was lost.
+ * <p>
+ * Usage: {@code java benchmark.ConcurrentRestaurantStress [threads] [customers per thread]}, where threads defaults
+ * to 8 and customers per thread defaults to 100,000. The program exits with an exception if a check fails.
+ */
+public class ConcurrentRestaurantStress {
+    // Constants
+    private static final int DEFAULT_THREADS = 8;
+    private static final int DEFAULT_CUSTOMERS_PER_THREAD = 100_000;
+    private static final int SHARED_CODES = 10_000; // Customer codes that every thread tries to add
+    private static final int DELETE_EVERY = 3;
+
+    // Starts every thread at once and waits for all of them to finish
+    // A check that fails in a thread is rethrown here, with the failures of the other threads suppressed
+    private static long runThreads(int threads, ThreadTask task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>(threads);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                try {
+                    task.run(thread);
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long nanos = System.nanoTime() - startNanos;
+
+        Throwable failure = failures.poll();
+        if (failure != null) {
+            for (Throwable other : failures) {
+                failure.addSuppressed(other);
+            }
+            if (failure instanceof Error error) {
+                throw error;
+            }
+            throw (RuntimeException) failure;
+        }
+        return nanos;
+    }
+
+    // The work of one thread
+    private interface ThreadTask {
+        void run(int thread);
+    }
+
+    // Fails the program if a check does not hold
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    /**
+     * Issues IDs from many threads and checks that none of them are the same.
+     *
+     * @param threads   the number of threads
+     * @param perThread the number of IDs each thread issues
+     * @throws InterruptedException if the program is interrupted while waiting for the threads
+     */
+    public static void stressAllocator(int threads, int perThread) throws InterruptedException {
+        CustomerIdAllocator customerIds = new CustomerIdAllocator();
+        int[][] issued = new int[threads][perThread];
+        long nanos = runThreads(threads, thread -> {
+            for (int i = 0; i < perThread; i++) {
+                issued[thread][i] = customerIds.next();
+            }
+        });
+
+        BitSet seen = new BitSet();
+        for (int[] ids : issued) {
+            for (int id : ids) {
+                check(id > 0, "Issued a customer ID that is not positive: " + id);
+                check(!seen.get(id), "Issued customer ID " + id + " twice");
+                seen.set(id);
+            }
+        }
+        System.out.printf("%-28s %,14.0f ids/s, %,d unique ids\n", "id allocation", threads * (double) perThread / (nanos / 1e9), seen.cardinality());
+    }
+
+    /**
+     * Adds, searches, and deletes records from many threads, then checks the IDs and records.
+     *
+     * @param threads   the number of threads
+     * @param perThread the number of customer codes only each thread adds
+     * @throws InterruptedException if the program is interrupted while waiting for the threads
+     */
+    public static void stressRestaurant(int threads, int perThread) throws InterruptedException {
+        ConcurrentRestaurant restaurant = new ConcurrentRestaurant("EliBee");
+        int sharedBase = threads * perThread;
+        List<List<Customer>> added = new ArrayList<>();
+        List<List<Customer>> deleted = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            added.add(new ArrayList<>());
+            deleted.add(new ArrayList<>());
+        }
+
+        long nanos = runThreads(threads, thread -> {
+            List<Customer> threadAdded = added.get(thread);
+            List<Customer> threadDeleted = deleted.get(thread);
+            for (int i = 0; i < perThread; i++) {
+                // Add a code of this thread, and race the other threads for a shared code
+                int code = thread * perThread + i;
+                Customer customer = restaurant.add("First" + code, "Last" + thread, code, i);
+                check(customer != null, "Could not add customer code " + code);
+                threadAdded.add(customer);
+                Customer shared = restaurant.add("Shared", "Last" + thread, sharedBase + i % SHARED_CODES, i);
+                if (shared != null) {
+                    threadAdded.add(shared);
+                }
+
+                // Search for the record that was just added, then delete some of the records
+                check(restaurant.find(code) == customer, "Lost the record of customer code " + code);
+                if (i % DELETE_EVERY == 0) {
+                    Customer removed = restaurant.delete(code);
+                    check(removed == customer, "Deleted the wrong record of customer code " + code);
+                    threadDeleted.add(removed);
+                }
+            }
+        });
+
+        // Every added customer has a different ID
+        BitSet ids = new BitSet();
+        int addedCount = 0;
+        int deletedCount = 0;
+        for (int t = 0; t < threads; t++) {
+            for (Customer customer : added.get(t)) {
+                check(!ids.get(customer.getCustomerId()), "Issued customer ID " + customer.getCustomerId() + " twice");
+                ids.set(customer.getCustomerId());
+                addedCount++;
+            }
+            deletedCount += deleted.get(t).size();
+        }
+
+        // Every shared code was added exactly once, and every record that was not deleted is still there
+        int sharedCount = Math.min(SHARED_CODES, perThread);
+        check(addedCount == threads * perThread + sharedCount,
+                "Added " + addedCount + " records instead of " + (threads * perThread + sharedCount));
+        check(restaurant.size() == addedCount - deletedCount,
+                "The restaurant has " + restaurant.size() + " records instead of " + (addedCount - deletedCount));
+        for (int t = 0; t < threads; t++) {
+            for (Customer customer : added.get(t)) {
+                boolean wasDeleted = customer.getFirstName().startsWith("First")
+                        && (customer.getCustomerCode() - t * perThread) % DELETE_EVERY == 0;
+                Customer found = restaurant.find(customer.getCustomerCode());
+                check(wasDeleted ? found == null : found == customer,
+                        "The record of customer code " + customer.getCustomerCode() + " is wrong");
+            }
+        }
+        check(restaurant.list().size() == restaurant.size(), "The list of records has the wrong size");
+
+        System.out.printf("%-28s %,14.0f ops/s, %,d records, %,d deleted\n", "restaurant operations",
+                threads * (double) perThread * 4 / (nanos / 1e9), restaurant.size(), deletedCount);
+    }
+
+    /**
+     * The main method
+     *
+     * @param args the array of command line arguments
+     * @throws InterruptedException if the program is interrupted while waiting for the threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int threads = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_THREADS;
+        int perThread = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_CUSTOMERS_PER_THREAD;
+        ConcurrentRestaurantStress.stressAllocator(threads, perThread);
+        ConcurrentRestaurantStress.stressRestaurant(threads, perThread);
+        System.out.println("No duplicate IDs and no lost records.");
+    }
+}
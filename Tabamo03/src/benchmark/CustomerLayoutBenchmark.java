@@ -0,0 +1,148 @@
+package benchmark;
+
+import restaurant.Customer;
+import restaurant.CustomerStore;
+import restaurant.CustomerTable;
+import restaurant.CustomerView;
+
+import java.util.Random;
+
+/**
+ * A program that compares the memory and scan throughput of customer records stored as {@code Customer} objects
+ * in a {@code CustomerStore} and stored by column in a {@code CustomerTable}.
+ * <p>
+ * Usage: {@code java benchmark.CustomerLayoutBenchmark [customers]}, where customers defaults to 1,000,000.
+ */
+public class CustomerLayoutBenchmark {
+    // Constants
+    private static final int DEFAULT_CUSTOMERS = 1_000_000;
+    private static final int RUNS = 5;
+    private static final int LOOKUPS = 1_000_000;
+
+    // Computes the heap in use after collecting garbage
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // Prints the throughput of a benchmark from the time of its fastest run, which the caller keeps
+    private static void report(String name, int rows, long nanos) {
+        System.out.printf("%-32s %,16.0f rows/s\n", name, rows / (nanos / 1e9));
+    }
+
+    // Gets the first name of a generated customer
+    private static String firstName(int i) {
+        return "First" + i;
+    }
+
+    // Gets the last name of a generated customer
+    private static String lastName(int i) {
+        return "Last" + (i % 10_000);
+    }
+
+    /**
+     * The main method
+     *
+     * @param args the array of command line arguments
+     */
+    public static void main(String[] args) {
+        int customers = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_CUSTOMERS;
+
+        // Measure the memory of each layout
+        long before = usedHeap();
+        CustomerStore store = new CustomerStore();
+        for (int i = 0; i < customers; i++) {
+            store.add(new Customer(i + 1, firstName(i), lastName(i), i, i % 1_000));
+        }
+        long storeBytes = usedHeap() - before;
+
+        before = usedHeap();
+        CustomerTable table = new CustomerTable();
+        for (int i = 0; i < customers; i++) {
+            table.add(i + 1, firstName(i), lastName(i), i, i % 1_000);
+        }
+        long tableBytes = usedHeap() - before;
+        System.out.printf("%-32s %,16.1f bytes/customer\n", "heap (Customer objects)", storeBytes / (double) customers);
+        System.out.printf("%-32s %,16.1f bytes/customer\n", "heap (CustomerTable)", tableBytes / (double) customers);
+
+        // Find the longest name the way the record view does, and total the loyalty points
+        long storeNameNanos = Long.MAX_VALUE;
+        long tableNameNanos = Long.MAX_VALUE;
+        long storePointsNanos = Long.MAX_VALUE;
+        long viewPointsNanos = Long.MAX_VALUE;
+        long tablePointsNanos = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            int max = 0;
+            for (Customer customer : store) {
+                max = Math.max(max, customer.getFirstName().length() + 1 + customer.getLastName().length());
+            }
+            storeNameNanos = Math.min(storeNameNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            int tableMax = table.getMaxNameLength();
+            tableNameNanos = Math.min(tableNameNanos, System.nanoTime() - start);
+            if (max != tableMax) {
+                throw new IllegalStateException("The longest names differ: " + max + " and " + tableMax);
+            }
+
+            start = System.nanoTime();
+            long points = 0;
+            for (Customer customer : store) {
+                points += customer.getLoyaltyPoints();
+            }
+            storePointsNanos = Math.min(storePointsNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            long viewPoints = 0;
+            for (CustomerView view : table) {
+                viewPoints += view.getLoyaltyPoints();
+            }
+            viewPointsNanos = Math.min(viewPointsNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            long tablePoints = table.getTotalLoyaltyPoints();
+            tablePointsNanos = Math.min(tablePointsNanos, System.nanoTime() - start);
+            if (points != viewPoints || points != tablePoints) {
+                throw new IllegalStateException("The loyalty points differ");
+            }
+            checksum += max + points;
+        }
+        report("longest name (Customer objects)", customers, storeNameNanos);
+        report("longest name (CustomerTable)", customers, tableNameNanos);
+        report("points (Customer objects)", customers, storePointsNanos);
+        report("points (CustomerView)", customers, viewPointsNanos);
+        report("points (CustomerTable)", customers, tablePointsNanos);
+
+        // Look up random customer codes in both layouts
+        Random random = new Random(48);
+        int[] codes = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            codes[i] = random.nextInt(customers * 2); // Half of the codes are missing
+        }
+        long storeFindNanos = Long.MAX_VALUE;
+        long tableFindNanos = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            for (int code : codes) {
+                int slot = store.find(code);
+                checksum += (slot == -1) ? 0 : store.get(slot).getLoyaltyPoints();
+            }
+            storeFindNanos = Math.min(storeFindNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int code : codes) {
+                int row = table.find(code);
+                checksum += (row == -1) ? 0 : table.get(row).getLoyaltyPoints();
+            }
+            tableFindNanos = Math.min(tableFindNanos, System.nanoTime() - start);
+        }
+        report("find (Customer objects)", LOOKUPS, storeFindNanos);
+        report("find (CustomerTable)", LOOKUPS, tableFindNanos);
+        System.out.println("checksum " + checksum);
+    }
+}
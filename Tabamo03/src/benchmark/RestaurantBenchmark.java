@@ -0,0 +1,88 @@
+package benchmark;
+
+import restaurant.Customer;
+import restaurant.Restaurant;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A program that measures the throughput of adding, searching, listing, and deleting the customer records of a
+ * {@code Restaurant} through its methods that do not prompt the user.
+ * <p>
+ * Usage: {@code java benchmark.RestaurantBenchmark [customers]}, where customers defaults to 1,000,000.
+ */
+public class RestaurantBenchmark {
+    // Constants
+    private static final int DEFAULT_CUSTOMERS = 1_000_000;
+
+    // Prints the throughput of a benchmark
+    private static void report(String name, int ops, long nanos) {
+        System.out.printf("%-20s %,16.0f ops/s\n", name, ops / (nanos / 1e9));
+    }
+
+    /**
+     * The main method
+     *
+     * @param args the array of command line arguments
+     */
+    public static void main(String[] args) {
+        int customers = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_CUSTOMERS;
+        Restaurant restaurant = new Restaurant("EliBee");
+
+        // Shuffle the customer codes so that they are not added in order
+        Random random = new Random(50);
+        int[] codes = new int[customers];
+        for (int i = 0; i < customers; i++) {
+            int j = random.nextInt(i + 1);
+            codes[i] = codes[j];
+            codes[j] = i;
+        }
+
+        long start = System.nanoTime();
+        for (int code : codes) {
+            if (restaurant.add("First", "Last", code, code % 1_000) == null) {
+                throw new IllegalStateException("Could not add customer code " + code);
+            }
+        }
+        report("add", customers, System.nanoTime() - start);
+
+        // Adding an existing code is rejected
+        start = System.nanoTime();
+        for (int code : codes) {
+            if (restaurant.add("First", "Last", code, 0) != null) {
+                throw new IllegalStateException("Added customer code " + code + " twice");
+            }
+        }
+        report("add duplicate", customers, System.nanoTime() - start);
+
+        // Search for every code and as many missing codes
+        start = System.nanoTime();
+        long points = 0;
+        for (int code : codes) {
+            Customer customer = restaurant.find(code);
+            points += customer.getLoyaltyPoints();
+            if (restaurant.find(code + customers) != null) {
+                throw new IllegalStateException("Found a missing customer code");
+            }
+        }
+        report("find", customers * 2, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        List<Customer> listed = restaurant.list();
+        report("list", listed.size(), System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int code : codes) {
+            if (restaurant.delete(code) == null) {
+                throw new IllegalStateException("Could not delete customer code " + code);
+            }
+        }
+        report("delete", customers, System.nanoTime() - start);
+
+        if (restaurant.size() != 0 || listed.size() != customers) {
+            throw new IllegalStateException("The restaurant has the wrong number of records");
+        }
+        System.out.println("checksum " + points);
+    }
+}
@@ -0,0 +1,101 @@
+package restaurant;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents a restaurant whose customer records can be added, searched, and deleted by many threads at once.
+ * <p> The records are kept in a {@code ConcurrentHashMap} from customer codes to {@code Customer}s, and the IDs
+ * are issued by a {@link CustomerIdAllocator}, so no lock is held while adding, searching, or deleting a record.
+ */
+public class ConcurrentRestaurant {
+    // Attributes
+    private final String restaurantName;
+    private final ConcurrentHashMap<Integer, Customer> customerRecords;
+    private final CustomerIdAllocator customerIds;
+
+    /**
+     * Creates a new instance of a {@code ConcurrentRestaurant} with a restaurant name and no customer records.
+     *
+     * @param restaurantName the name of the {@code ConcurrentRestaurant}
+     */
+    public ConcurrentRestaurant(String restaurantName) {
+        this.restaurantName = restaurantName;
+        this.customerRecords = new ConcurrentHashMap<>();
+        this.customerIds = new CustomerIdAllocator();
+    }
+
+    // Getters
+
+    /**
+     * @return the name of the {@code ConcurrentRestaurant}
+     */
+    public String getRestaurantName() {
+        return this.restaurantName;
+    }
+
+    /**
+     * @return the number of customer records
+     */
+    public int size() {
+        return this.customerRecords.size();
+    }
+
+    // Methods
+
+    /**
+     * Adds a {@code Customer} to the record with a new ID, unless a customer with the same customer code exists.
+     * When threads add the same customer code at once, only one of them adds a record.
+     *
+     * @param firstName     the first name of the customer
+     * @param lastName      the last name of the customer
+     * @param customerCode  the customer code of the customer, which must not be negative
+     * @param loyaltyPoints the number of loyalty points of the customer, which must not be negative
+     * @return the added customer, otherwise null if the customer code already exists
+     * @throws IllegalArgumentException if the customer code or loyalty points are negative or a name is empty
+     */
+    public Customer add(String firstName, String lastName, int customerCode, int loyaltyPoints) {
+        Restaurant.checkCustomer(firstName, lastName, customerCode, loyaltyPoints);
+
+        // Check first so that adding an existing code does not use up an ID
+        if (this.customerRecords.containsKey(customerCode)) {
+            return null;
+        }
+        Customer newCustomer = new Customer(this.customerIds.next(), firstName, lastName, customerCode, loyaltyPoints);
+        return (this.customerRecords.putIfAbsent(customerCode, newCustomer) == null) ? newCustomer : null;
+    }
+
+    /**
+     * Searches for a {@code Customer} using the customer code.
+     *
+     * @param customerCode the customer code to search for
+     * @return the customer, otherwise null if there is no customer with the customer code
+     */
+    public Customer find(int customerCode) {
+        return this.customerRecords.get(customerCode);
+    }
+
+    /**
+     * Deletes a {@code Customer} from the record. When threads delete the same customer code at once,
+     * only one of them gets the deleted customer.
+     *
+     * @param customerCode the customer code of the customer to delete
+     * @return the deleted customer, otherwise null if there is no customer with the customer code
+     */
+    public Customer delete(int customerCode) {
+        return this.customerRecords.remove(customerCode);
+    }
+
+    /**
+     * Lists the customers in the record by their ID. Records added or deleted while listing may be left out.
+     *
+     * @return the customers in order of their ID
+     */
+    public List<Customer> list() {
+        List<Customer> customers = new ArrayList<>(this.customerRecords.values());
+        customers.sort(Comparator.comparingInt(Customer::getCustomerId));
+        return customers;
+    }
+}
@@ -10,9 +10,6 @@ public class Customer {
     // Static Constants
     private final static int STRING_PADDING = 4;
 
-    // Static Attributes
-    private static int customerIdsIssued = 0;
-
     // Attributes
     private final int customerId;
     private final String firstName;
@@ -21,15 +18,17 @@ public class Customer {
     private final int loyaltyPoints;
 
     /**
-     * Creates a new instance of a {@code Customer} with a first name, last name, and customer code.
+     * Creates a new instance of a {@code Customer} with an ID, first name, last name, and customer code.
+     * <p> The ID is issued by the {@link CustomerIdAllocator} of the customer's restaurant.
      *
+     * @param customerId    the ID of the customer, unique within its restaurant
      * @param firstName     the first name of the customer
      * @param lastName      the last name of the customer
      * @param customerCode  the customer code of the customer for record purposes
      * @param loyaltyPoints the number of loyalty points of the customer
      */
-    public Customer(String firstName, String lastName, int customerCode, int loyaltyPoints) {
-        this.customerId = ++customerIdsIssued; // Increment the customer quantity and assign it to the customer ID for every new customer
+    public Customer(int customerId, String firstName, String lastName, int customerCode, int loyaltyPoints) {
+        this.customerId = customerId;
         this.firstName = firstName;
         this.lastName = lastName;
         this.customerCode = customerCode;
@@ -0,0 +1,74 @@
+package restaurant;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issues customer IDs for one restaurant, starting from 1, without issuing the same ID twice even when
+ * many threads ask for IDs at once.
+ * <p>
+ * Each thread reserves a block of IDs from a shared atomic counter and issues IDs from its block until it runs out,
+ * so the threads only contend on the counter once per block. A single thread gets consecutive IDs, but IDs from
+ * different threads are interleaved by block, and the unused IDs of a thread's block are never issued.
+ */
+public class CustomerIdAllocator {
+    // Static Constants
+    public final static int DEFAULT_BLOCK_SIZE = 64;
+    private final static int FIRST_ID = 1;
+
+    // Attributes
+    private final AtomicLong nextUnreserved;
+    private final int blockSize;
+    private final ThreadLocal<long[]> blocks; // The next ID and the end of the block of each thread
+
+    /**
+     * Creates a new {@code CustomerIdAllocator} that reserves IDs in blocks of the default size.
+     */
+    public CustomerIdAllocator() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a new {@code CustomerIdAllocator} that reserves IDs in blocks of a size.
+     *
+     * @param blockSize the number of IDs each thread reserves at once, which must be positive
+     */
+    public CustomerIdAllocator(int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("The block size must be positive.");
+        }
+        this.nextUnreserved = new AtomicLong(FIRST_ID);
+        this.blockSize = blockSize;
+        this.blocks = ThreadLocal.withInitial(() -> new long[]{0, 0});
+    }
+
+    // Getter
+
+    /**
+     * @return the number of IDs reserved by every thread, including the IDs not issued yet
+     */
+    public long getIdsReserved() {
+        return Math.min(this.nextUnreserved.get(), Integer.MAX_VALUE + 1L) - FIRST_ID;
+    }
+
+    // Methods
+
+    /**
+     * Issues a new customer ID.
+     *
+     * @return the customer ID
+     * @throws IllegalStateException if every positive {@code int} has been reserved
+     */
+    public int next() {
+        long[] block = this.blocks.get();
+        if (block[0] == block[1]) {
+            // Reserve the next block, which is cut short at the largest int
+            long start = this.nextUnreserved.getAndAdd(this.blockSize);
+            if (start > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Every customer ID has been issued.");
+            }
+            block[0] = start;
+            block[1] = Math.min(start + this.blockSize, Integer.MAX_VALUE + 1L);
+        }
+        return (int) block[0]++;
+    }
+}
@@ -0,0 +1,147 @@
+package restaurant;
+
+import java.util.Arrays;
+
+/**
+ * A hash table from customer codes to the slots of their {@code Customer} records.
+ * <p>
+ * Codes and slots are kept in two {@code int} arrays instead of a {@code HashMap<Integer, Integer>},
+ * so a lookup does not box the code into an {@code Integer}. Collisions are resolved by linear probing,
+ * and removed entries are filled by shifting later entries back, so lookups never pass over deleted entries.
+ */
+public class CustomerIndex {
+    // Static Constants
+    private final static int INITIAL_CAPACITY = 16;
+    private final static int EMPTY = -1; // Slots are never negative, so a negative slot marks an empty entry
+
+    // Attributes
+    private int[] codes;
+    private int[] slots;
+    private int size;
+
+    /**
+     * Creates a new empty {@code CustomerIndex}.
+     */
+    public CustomerIndex() {
+        this.codes = new int[INITIAL_CAPACITY];
+        this.slots = new int[INITIAL_CAPACITY];
+        Arrays.fill(this.slots, EMPTY);
+        this.size = 0;
+    }
+
+    // Getter
+
+    /**
+     * @return the number of customer codes in the index
+     */
+    public int size() {
+        return this.size;
+    }
+
+    // Methods
+
+    /**
+     * Finds the slot of a customer code.
+     *
+     * @param customerCode the customer code to find
+     * @return the slot of the customer code, otherwise -1
+     */
+    public int get(int customerCode) {
+        int mask = this.slots.length - 1;
+        for (int i = hash(customerCode) & mask; this.slots[i] != EMPTY; i = (i + 1) & mask) {
+            if (this.codes[i] == customerCode) {
+                return this.slots[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Sets the slot of a customer code, adding the code if it is not in the index.
+     *
+     * @param customerCode the customer code
+     * @param slot         the slot of the customer code, which must not be negative
+     */
+    public void put(int customerCode, int slot) {
+        if (slot < 0) {
+            throw new IllegalArgumentException("The slot must not be negative.");
+        }
+        // Keep the table at most half full so that probes stay short
+        if ((this.size + 1) * 2 > this.slots.length) {
+            this.resize(this.slots.length * 2);
+        }
+        int mask = this.slots.length - 1;
+        int i = hash(customerCode) & mask;
+        while (this.slots[i] != EMPTY) {
+            if (this.codes[i] == customerCode) {
+                this.slots[i] = slot;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        this.codes[i] = customerCode;
+        this.slots[i] = slot;
+        this.size++;
+    }
+
+    /**
+     * Removes a customer code from the index.
+     *
+     * @param customerCode the customer code to remove
+     * @return the slot the customer code had, otherwise -1
+     */
+    public int remove(int customerCode) {
+        int mask = this.slots.length - 1;
+        int i = hash(customerCode) & mask;
+        while (this.slots[i] != EMPTY && this.codes[i] != customerCode) {
+            i = (i + 1) & mask;
+        }
+        if (this.slots[i] == EMPTY) {
+            return -1;
+        }
+        int removedSlot = this.slots[i];
+
+        // Shift back every later entry of the probe run that could have been placed at the emptied entry
+        int gap = i;
+        for (int j = (gap + 1) & mask; this.slots[j] != EMPTY; j = (j + 1) & mask) {
+            int home = hash(this.codes[j]) & mask;
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                this.codes[gap] = this.codes[j];
+                this.slots[gap] = this.slots[j];
+                gap = j;
+            }
+        }
+        this.slots[gap] = EMPTY;
+        this.size--;
+        return removedSlot;
+    }
+
+    /**
+     * Removes every customer code from the index.
+     */
+    public void clear() {
+        Arrays.fill(this.slots, EMPTY);
+        this.size = 0;
+    }
+
+    // Moves every entry to a new table with a capacity
+    private void resize(int capacity) {
+        int[] oldCodes = this.codes;
+        int[] oldSlots = this.slots;
+        this.codes = new int[capacity];
+        this.slots = new int[capacity];
+        Arrays.fill(this.slots, EMPTY);
+        this.size = 0;
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] != EMPTY) {
+                this.put(oldCodes[i], oldSlots[i]);
+            }
+        }
+    }
+
+    // Spreads the bits of a customer code so that sequential codes do not fill one run of the table
+    private static int hash(int customerCode) {
+        int h = customerCode * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,220 @@
+package restaurant;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A growable store of {@code Customer} records that keeps them in the order they were added.
+ * <p>
+ * Each record is kept in the next unused slot, so the slots are already in the order the records were added.
+ * Deleting a record leaves a tombstone in its slot, so a delete does not move any other record, and iterating
+ * skips the tombstones. Once the tombstones outnumber the records, the records are compacted to the front of the
+ * store in slot order, which frees the tombstones and shrinks the store if it is mostly empty.
+ * Customer codes are found through a {@link CustomerIndex}.
+ */
+public class CustomerStore implements Iterable<Customer> {
+    // Static Constants
+    private final static int INITIAL_CAPACITY = 16;
+    private final static int MAX_CAPACITY = Integer.MAX_VALUE - 8; // The largest array size most JVMs allow
+    private final static int MIN_TOMBSTONES_TO_COMPACT = 16;
+
+    // Attributes
+    private Customer[] records; // Null in the slots of deleted records
+    private final CustomerIndex customerIndex;
+    private int slotsUsed;
+    private int size;
+    private int tombstones;
+    private int compactions;
+    private int modifications;
+
+    /**
+     * Creates a new empty {@code CustomerStore}.
+     */
+    public CustomerStore() {
+        this.records = new Customer[INITIAL_CAPACITY];
+        this.customerIndex = new CustomerIndex();
+        this.slotsUsed = 0;
+        this.size = 0;
+        this.tombstones = 0;
+        this.compactions = 0;
+        this.modifications = 0;
+    }
+
+    // Getters
+
+    /**
+     * @return the number of records in the store
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the number of slots of deleted records that have not been compacted yet
+     */
+    public int getTombstones() {
+        return this.tombstones;
+    }
+
+    /**
+     * @return the number of times the records have been compacted
+     */
+    public int getCompactions() {
+        return this.compactions;
+    }
+
+    /**
+     * @return the number of slots the store has room for before it grows
+     */
+    public int getCapacity() {
+        return this.records.length;
+    }
+
+    // Methods
+
+    /**
+     * Finds the slot of the record with a customer code.
+     *
+     * @param customerCode the customer code to find
+     * @return the slot of the record, otherwise -1
+     */
+    public int find(int customerCode) {
+        return this.customerIndex.get(customerCode);
+    }
+
+    /**
+     * Gets the record in a slot. Slots change when the records are compacted, so a slot should only be used
+     * until the next delete.
+     *
+     * @param slot the slot of the record
+     * @return the record in the slot
+     */
+    public Customer get(int slot) {
+        if (slot < 0 || slot >= this.slotsUsed || this.records[slot] == null) {
+            throw new IndexOutOfBoundsException("There is no record in slot " + slot + ".");
+        }
+        return this.records[slot];
+    }
+
+    /**
+     * Adds a record after every other record.
+     *
+     * @param customer the record to add
+     * @return the slot of the record
+     * @throws IllegalArgumentException if a record with the same customer code is in the store
+     */
+    public int add(Customer customer) {
+        if (this.customerIndex.get(customer.getCustomerCode()) != -1) {
+            throw new IllegalArgumentException("Customer code " + customer.getCustomerCode() + " is already in the store.");
+        }
+        if (this.slotsUsed == this.records.length) {
+            this.records = Arrays.copyOf(this.records, this.grownCapacity());
+        }
+
+        // Put the record in the next unused slot, after every other record
+        int slot = this.slotsUsed++;
+        this.records[slot] = customer;
+        this.customerIndex.put(customer.getCustomerCode(), slot);
+        this.size++;
+        this.modifications++;
+        return slot;
+    }
+
+    /**
+     * Deletes the record with a customer code, compacting the records if there are too many tombstones.
+     *
+     * @param customerCode the customer code of the record to delete
+     * @return the deleted record, otherwise null if there is no record with the customer code
+     */
+    public Customer remove(int customerCode) {
+        int slot = this.customerIndex.remove(customerCode);
+        if (slot == -1) {
+            return null;
+        }
+        Customer customer = this.records[slot];
+
+        // Leave a tombstone in the slot
+        this.records[slot] = null;
+        this.size--;
+        this.tombstones++;
+        this.modifications++;
+
+        if (this.tombstones >= MIN_TOMBSTONES_TO_COMPACT && this.tombstones > this.size) {
+            this.compact();
+        }
+        return customer;
+    }
+
+    /**
+     * Moves every record to the front of the store in the order they were added, freeing the tombstones.
+     * The store shrinks if the records fill less than a quarter of it.
+     */
+    public void compact() {
+        int capacity = this.records.length;
+        while (capacity > INITIAL_CAPACITY && this.size < capacity / 4) {
+            capacity /= 2;
+        }
+        Customer[] compacted = new Customer[capacity];
+        int slot = 0;
+        for (int i = 0; i < this.slotsUsed; i++) {
+            if (this.records[i] != null) {
+                compacted[slot] = this.records[i];
+                this.customerIndex.put(compacted[slot].getCustomerCode(), slot);
+                slot++;
+            }
+        }
+
+        this.records = compacted;
+        this.slotsUsed = this.size;
+        this.tombstones = 0;
+        this.compactions++;
+        this.modifications++;
+    }
+
+    /**
+     * @return an iterator over the records in the order they were added
+     */
+    @Override
+    public Iterator<Customer> iterator() {
+        return new Iterator<>() {
+            private int slot = CustomerStore.this.usedSlotFrom(0);
+            private final int expectedModifications = CustomerStore.this.modifications;
+
+            @Override
+            public boolean hasNext() {
+                return this.slot < CustomerStore.this.slotsUsed;
+            }
+
+            @Override
+            public Customer next() {
+                if (CustomerStore.this.modifications != this.expectedModifications) {
+                    throw new ConcurrentModificationException();
+                }
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Customer customer = CustomerStore.this.records[this.slot];
+                this.slot = CustomerStore.this.usedSlotFrom(this.slot + 1);
+                return customer;
+            }
+        };
+    }
+
+    // Computes the capacity to grow to when every slot is used
+    private int grownCapacity() {
+        if (this.records.length == MAX_CAPACITY) {
+            throw new IllegalStateException("The customer store is full.");
+        }
+        return (int) Math.min(MAX_CAPACITY, this.records.length * 2L);
+    }
+
+    // Finds the first slot from a slot on that holds a record, skipping tombstones, or slotsUsed if there is none
+    private int usedSlotFrom(int slot) {
+        while (slot < this.slotsUsed && this.records[slot] == null) {
+            slot++;
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,351 @@
+package restaurant;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A table of customer records stored by column instead of as one {@code Customer} object per record.
+ * <p>
+ * The IDs, customer codes, and loyalty points are kept in {@code int} arrays, and the names are kept one after
+ * another in a single {@code char} array, so scanning the records reads a few arrays in order instead of following
+ * a reference to every {@code Customer} and its two {@code String}s. Records are read through a
+ * {@link CustomerView} that the table moves from row to row.
+ * <p>
+ * Rows are kept in the order they were added. Deleting a record marks its row as deleted, and once the deleted rows
+ * outnumber the records, the records and their names are compacted to the front of the table.
+ */
+public final class CustomerTable implements Iterable<CustomerView> {
+    // Static Constants
+    private final static int INITIAL_CAPACITY = 16;
+    private final static int MAX_CAPACITY = Integer.MAX_VALUE - 8; // The largest array size most JVMs allow
+    private final static int MIN_DELETED_TO_COMPACT = 16;
+    private final static int DELETED = 0; // IDs start at 1, so an ID of 0 marks a deleted row
+
+    // Attributes
+    private int[] customerIds;
+    private int[] customerCodes;
+    private int[] loyaltyPoints;
+    private int[] nameOffsets; // Where the first name of each row starts in the names
+    private int[] firstNameLengths;
+    private int[] lastNameLengths;
+    private char[] names;
+    private int namesUsed;
+    private final CustomerIndex customerIndex;
+    private final CustomerView view;
+    private int rowsUsed;
+    private int size;
+    private int deletedRows;
+    private int modifications;
+
+    /**
+     * Creates a new empty {@code CustomerTable}.
+     */
+    public CustomerTable() {
+        this.customerIds = new int[INITIAL_CAPACITY];
+        this.customerCodes = new int[INITIAL_CAPACITY];
+        this.loyaltyPoints = new int[INITIAL_CAPACITY];
+        this.nameOffsets = new int[INITIAL_CAPACITY];
+        this.firstNameLengths = new int[INITIAL_CAPACITY];
+        this.lastNameLengths = new int[INITIAL_CAPACITY];
+        this.names = new char[INITIAL_CAPACITY * 8];
+        this.namesUsed = 0;
+        this.customerIndex = new CustomerIndex();
+        this.view = new CustomerView(this);
+        this.rowsUsed = 0;
+        this.size = 0;
+        this.deletedRows = 0;
+        this.modifications = 0;
+    }
+
+    // Getters
+
+    /**
+     * @return the number of records in the table
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the number of rows of deleted records that have not been compacted yet
+     */
+    public int getDeletedRows() {
+        return this.deletedRows;
+    }
+
+    int getCustomerId(int row) {
+        return this.customerIds[this.checkRow(row)];
+    }
+
+    String getFirstName(int row) {
+        this.checkRow(row);
+        return new String(this.names, this.nameOffsets[row], this.firstNameLengths[row]);
+    }
+
+    String getLastName(int row) {
+        this.checkRow(row);
+        return new String(this.names, this.nameOffsets[row] + this.firstNameLengths[row], this.lastNameLengths[row]);
+    }
+
+    int getCustomerCode(int row) {
+        return this.customerCodes[this.checkRow(row)];
+    }
+
+    int getLoyaltyPoints(int row) {
+        return this.loyaltyPoints[this.checkRow(row)];
+    }
+
+    int getNameLength(int row) {
+        this.checkRow(row);
+        return this.firstNameLengths[row] + 1 + this.lastNameLengths[row];
+    }
+
+    // Methods
+
+    /**
+     * Finds the row of the record with a customer code.
+     *
+     * @param customerCode the customer code to find
+     * @return the row of the record, otherwise -1
+     */
+    public int find(int customerCode) {
+        return this.customerIndex.get(customerCode);
+    }
+
+    /**
+     * Gets a view of the record in a row. The table has one view that every call moves, so the view should only
+     * be used until the next call.
+     *
+     * @param row the row of the record
+     * @return the view of the record
+     */
+    public CustomerView get(int row) {
+        return this.view.moveTo(this.checkRow(row));
+    }
+
+    /**
+     * Adds a copy of a {@code Customer} after every other record, keeping its ID.
+     *
+     * @param customer the customer to add
+     * @return the row of the record
+     * @throws IllegalArgumentException if a record with the same customer code is in the table
+     */
+    public int add(Customer customer) {
+        return this.add(customer.getCustomerId(), customer.getFirstName(), customer.getLastName(),
+                customer.getCustomerCode(), customer.getLoyaltyPoints());
+    }
+
+    /**
+     * Adds a record after every other record.
+     *
+     * @param customerId    the ID of the customer, which must be positive
+     * @param firstName     the first name of the customer
+     * @param lastName      the last name of the customer
+     * @param customerCode  the customer code of the customer
+     * @param loyaltyPoints the number of loyalty points of the customer
+     * @return the row of the record
+     * @throws IllegalArgumentException if a record with the same customer code is in the table
+     */
+    public int add(int customerId, String firstName, String lastName, int customerCode, int loyaltyPoints) {
+        if (customerId <= DELETED) {
+            throw new IllegalArgumentException("The customer ID must be positive.");
+        }
+        if (this.customerIndex.get(customerCode) != -1) {
+            throw new IllegalArgumentException("Customer code " + customerCode + " is already in the table.");
+        }
+        if (this.rowsUsed == this.customerIds.length) {
+            this.resizeRows(grow(this.customerIds.length, this.rowsUsed + 1));
+        }
+        int nameLength = firstName.length() + lastName.length();
+        if ((long) this.namesUsed + nameLength > this.names.length) {
+            this.names = Arrays.copyOf(this.names, grow(this.names.length, (long) this.namesUsed + nameLength));
+        }
+
+        // Append the names to the arena and the rest of the record to the columns
+        int row = this.rowsUsed++;
+        firstName.getChars(0, firstName.length(), this.names, this.namesUsed);
+        lastName.getChars(0, lastName.length(), this.names, this.namesUsed + firstName.length());
+        this.nameOffsets[row] = this.namesUsed;
+        this.firstNameLengths[row] = firstName.length();
+        this.lastNameLengths[row] = lastName.length();
+        this.namesUsed += nameLength;
+        this.customerIds[row] = customerId;
+        this.customerCodes[row] = customerCode;
+        this.loyaltyPoints[row] = loyaltyPoints;
+        this.customerIndex.put(customerCode, row);
+        this.size++;
+        this.modifications++;
+        return row;
+    }
+
+    /**
+     * Deletes the record with a customer code, compacting the table if there are too many deleted rows.
+     *
+     * @param customerCode the customer code of the record to delete
+     * @return true if a record was deleted, otherwise false
+     */
+    public boolean remove(int customerCode) {
+        int row = this.customerIndex.remove(customerCode);
+        if (row == -1) {
+            return false;
+        }
+        this.customerIds[row] = DELETED;
+        this.size--;
+        this.deletedRows++;
+        this.modifications++;
+
+        if (this.deletedRows >= MIN_DELETED_TO_COMPACT && this.deletedRows > this.size) {
+            this.compact();
+        }
+        return true;
+    }
+
+    /**
+     * Moves every record and its names to the front of the table in the order they were added,
+     * freeing the deleted rows and the space of their names.
+     */
+    public void compact() {
+        char[] compactedNames = new char[Math.max(INITIAL_CAPACITY, this.namesUsed)];
+        int row = 0;
+        int namesUsed = 0;
+        for (int i = 0; i < this.rowsUsed; i++) {
+            if (this.customerIds[i] == DELETED) {
+                continue;
+            }
+            int nameLength = this.firstNameLengths[i] + this.lastNameLengths[i];
+            System.arraycopy(this.names, this.nameOffsets[i], compactedNames, namesUsed, nameLength);
+            this.customerIds[row] = this.customerIds[i];
+            this.customerCodes[row] = this.customerCodes[i];
+            this.loyaltyPoints[row] = this.loyaltyPoints[i];
+            this.nameOffsets[row] = namesUsed;
+            this.firstNameLengths[row] = this.firstNameLengths[i];
+            this.lastNameLengths[row] = this.lastNameLengths[i];
+            this.customerIndex.put(this.customerCodes[row], row);
+            namesUsed += nameLength;
+            row++;
+        }
+        this.names = Arrays.copyOf(compactedNames, Math.max(INITIAL_CAPACITY, namesUsed));
+        this.namesUsed = namesUsed;
+        this.rowsUsed = row;
+        this.deletedRows = 0;
+        this.modifications++;
+
+        // Shrink the columns if the records fill less than a quarter of them
+        int capacity = this.customerIds.length;
+        while (capacity > INITIAL_CAPACITY && this.size < capacity / 4) {
+            capacity /= 2;
+        }
+        if (capacity != this.customerIds.length) {
+            this.resizeRows(capacity);
+        }
+    }
+
+    /**
+     * Computes the length of the longest name, with the first and last name joined by a space,
+     * using only the name lengths.
+     *
+     * @return the length of the longest name, or 0 if the table is empty
+     */
+    public int getMaxNameLength() {
+        int max = 0;
+        for (int i = 0; i < this.rowsUsed; i++) {
+            if (this.customerIds[i] != DELETED) {
+                max = Math.max(max, this.firstNameLengths[i] + 1 + this.lastNameLengths[i]);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Computes the total loyalty points of every record.
+     *
+     * @return the total loyalty points
+     */
+    public long getTotalLoyaltyPoints() {
+        long total = 0;
+        for (int i = 0; i < this.rowsUsed; i++) {
+            if (this.customerIds[i] != DELETED) {
+                total += this.loyaltyPoints[i];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Gets the number of bytes allocated for the columns and the names, not counting the index of customer codes.
+     *
+     * @return the number of bytes of the table's arrays
+     */
+    public long getBytesAllocated() {
+        return 6L * Integer.BYTES * this.customerIds.length + (long) Character.BYTES * this.names.length;
+    }
+
+    /**
+     * @return an iterator that moves one view over the records in the order they were added
+     */
+    @Override
+    public Iterator<CustomerView> iterator() {
+        return new Iterator<>() {
+            private int row = this.skipDeleted(0);
+            private final int expectedModifications = CustomerTable.this.modifications;
+
+            @Override
+            public boolean hasNext() {
+                return this.row < CustomerTable.this.rowsUsed;
+            }
+
+            @Override
+            public CustomerView next() {
+                if (CustomerTable.this.modifications != this.expectedModifications) {
+                    throw new ConcurrentModificationException();
+                }
+                if (this.row >= CustomerTable.this.rowsUsed) {
+                    throw new NoSuchElementException();
+                }
+                CustomerView view = CustomerTable.this.view.moveTo(this.row);
+                this.row = this.skipDeleted(this.row + 1);
+                return view;
+            }
+
+            // Finds the first row from a row that is not deleted
+            private int skipDeleted(int row) {
+                while (row < CustomerTable.this.rowsUsed && CustomerTable.this.customerIds[row] == DELETED) {
+                    row++;
+                }
+                return row;
+            }
+        };
+    }
+
+    // Checks that a row has a record and returns it
+    private int checkRow(int row) {
+        if (row < 0 || row >= this.rowsUsed || this.customerIds[row] == DELETED) {
+            throw new IndexOutOfBoundsException("There is no record in row " + row + ".");
+        }
+        return row;
+    }
+
+    // Copies every column to arrays of a new capacity
+    private void resizeRows(int capacity) {
+        this.customerIds = Arrays.copyOf(this.customerIds, capacity);
+        this.customerCodes = Arrays.copyOf(this.customerCodes, capacity);
+        this.loyaltyPoints = Arrays.copyOf(this.loyaltyPoints, capacity);
+        this.nameOffsets = Arrays.copyOf(this.nameOffsets, capacity);
+        this.firstNameLengths = Arrays.copyOf(this.firstNameLengths, capacity);
+        this.lastNameLengths = Arrays.copyOf(this.lastNameLengths, capacity);
+    }
+
+    // Doubles a capacity until it fits a number of elements
+    private static int grow(int capacity, long needed) {
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalStateException("The customer table is full.");
+        }
+        long grown = capacity;
+        while (grown < needed) {
+            grown *= 2;
+        }
+        return (int) Math.min(MAX_CAPACITY, grown);
+    }
+}
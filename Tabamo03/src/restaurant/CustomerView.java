@@ -0,0 +1,73 @@
+package restaurant;
+
+/**
+ * A view of one customer in a {@link CustomerTable}.
+ * <p>
+ * A {@code CustomerView} holds no customer data of its own. It reads the columns of the table at its current row,
+ * and the table moves the same view from row to row instead of creating an object for every customer.
+ * A view should not be kept after the table is changed or after it is moved to another row.
+ */
+public class CustomerView {
+    // Attributes
+    private final CustomerTable table;
+    private int row;
+
+    /**
+     * Creates a new {@code CustomerView} of a table.
+     *
+     * @param table the table to view
+     */
+    CustomerView(CustomerTable table) {
+        this.table = table;
+        this.row = -1;
+    }
+
+    // Getters
+
+    /**
+     * @return the row of the table the view is at
+     */
+    public int getRow() {
+        return this.row;
+    }
+
+    public int getCustomerId() {
+        return this.table.getCustomerId(this.row);
+    }
+
+    public String getFirstName() {
+        return this.table.getFirstName(this.row);
+    }
+
+    public String getLastName() {
+        return this.table.getLastName(this.row);
+    }
+
+    public int getCustomerCode() {
+        return this.table.getCustomerCode(this.row);
+    }
+
+    public int getLoyaltyPoints() {
+        return this.table.getLoyaltyPoints(this.row);
+    }
+
+    /**
+     * @return the length of the first and last name joined by a space, without building the name
+     */
+    public int getNameLength() {
+        return this.table.getNameLength(this.row);
+    }
+
+    // Methods
+
+    /**
+     * Moves the view to a row of the table.
+     *
+     * @param row the row to view
+     * @return this view
+     */
+    CustomerView moveTo(int row) {
+        this.row = row;
+        return this;
+    }
+}
@@ -1,22 +1,24 @@
 package restaurant;
 
+import java.util.ArrayList;
 import java.util.InputMismatchException;
+import java.util.List;
 import java.util.Scanner;
 
 /**
  * Represents a restaurant that manages customer records.
  * <p> A {@code Restaurant} can add, search, view, and delete {@code Customer} records.
+ * The records can be managed directly with {@link #add}, {@link #find}, {@link #delete}, and {@link #list},
+ * or interactively through a {@code Scanner} with the methods that prompt the user.
  */
 public class Restaurant {
     // Static Constants
-
-    public final static int MAX_CUSTOMERS = 50;
     private final static int STRING_PADDING = 2;
 
     // Attributes
     private final String restaurantName;
-    private final Customer[] customerRecords; // Note: the array's reference is final, not its content
-    private int customerQty;
+    private final CustomerStore customerRecords;
+    private final CustomerIdAllocator customerIds;
 
     /**
      * Creates a new instance of a {@code Restaurant} with a restaurant name, customer record, and customer quantity.
@@ -25,11 +27,11 @@ public class Restaurant {
      */
     public Restaurant(String restaurantName) {
         this.restaurantName = restaurantName;
-        this.customerRecords = new Customer[MAX_CUSTOMERS];
-        this.customerQty = 0;
+        this.customerRecords = new CustomerStore();
+        this.customerIds = new CustomerIdAllocator();
     }
 
-    // Getter
+    // Getters
 
     /**
      * @return the name of the {@code Restaurant}
@@ -38,6 +40,13 @@ public class Restaurant {
         return restaurantName;
     }
 
+    /**
+     * @return the number of customer records
+     */
+    public int size() {
+        return this.customerRecords.size();
+    }
+
     // Methods
 
     /**
@@ -48,8 +57,8 @@ public class Restaurant {
     private int getMaxNameLengths() {
         // Find the maximum name length
         int max = 0;
-        for (int i = 0; i < this.customerQty; i++) {
-            int nameCurrent = (this.customerRecords[i].getFirstName() + " " + this.customerRecords[i].getLastName()).length();
+        for (Customer customer : this.customerRecords) {
+            int nameCurrent = customer.getFirstName().length() + 1 + customer.getLastName().length();
             if (nameCurrent > max) {
                 max = nameCurrent;
             }
@@ -60,18 +69,75 @@ public class Restaurant {
     }
 
     /**
-     * Checks whether the restaurant's record contains a {@code Customer}
+     * Checks the details of a new {@code Customer} the same way the prompts of {@link #addCustomer} do.
      *
-     * @param customerCode the customer code to check for
-     * @return the index of the existing customer in the record, otherwise -1
+     * @param firstName     the first name of the customer
+     * @param lastName      the last name of the customer
+     * @param customerCode  the customer code of the customer
+     * @param loyaltyPoints the number of loyalty points of the customer
+     * @throws IllegalArgumentException if the customer code or loyalty points are negative or a name is empty
      */
-    private int contains(int customerCode) {
-        for (int i = 0; i < this.customerQty; i++) {
-            if (this.customerRecords[i].getCustomerCode() == customerCode) {
-                return i;
-            }
+    static void checkCustomer(String firstName, String lastName, int customerCode, int loyaltyPoints) {
+        if (customerCode < 0 || loyaltyPoints < 0) {
+            throw new IllegalArgumentException("The customer code and loyalty points must not be negative.");
+        }
+        if (firstName.isBlank() || lastName.isBlank()) {
+            throw new IllegalArgumentException("The first and last name must not be empty.");
+        }
+    }
+
+    /**
+     * Adds a {@code Customer} with a new ID to the record, unless a customer with the same customer code exists.
+     *
+     * @param firstName     the first name of the customer
+     * @param lastName      the last name of the customer
+     * @param customerCode  the customer code of the customer, which must not be negative
+     * @param loyaltyPoints the number of loyalty points of the customer, which must not be negative
+     * @return the added customer, otherwise null if the customer code already exists
+     * @throws IllegalArgumentException if the customer code or loyalty points are negative or a name is empty
+     */
+    public Customer add(String firstName, String lastName, int customerCode, int loyaltyPoints) {
+        checkCustomer(firstName, lastName, customerCode, loyaltyPoints);
+        if (this.customerRecords.find(customerCode) != -1) {
+            return null;
         }
-        return -1;
+        Customer newCustomer = new Customer(this.customerIds.next(), firstName, lastName, customerCode, loyaltyPoints);
+        this.customerRecords.add(newCustomer);
+        return newCustomer;
+    }
+
+    /**
+     * Searches for a {@code Customer} using the customer code.
+     *
+     * @param customerCode the customer code to search for
+     * @return the customer, otherwise null if there is no customer with the customer code
+     */
+    public Customer find(int customerCode) {
+        int slot = this.customerRecords.find(customerCode);
+        return (slot == -1) ? null : this.customerRecords.get(slot);
+    }
+
+    /**
+     * Deletes a {@code Customer} from the record.
+     *
+     * @param customerCode the customer code of the customer to delete
+     * @return the deleted customer, otherwise null if there is no customer with the customer code
+     */
+    public Customer delete(int customerCode) {
+        return this.customerRecords.remove(customerCode);
+    }
+
+    /**
+     * Lists the customers in the record.
+     *
+     * @return the customers in the order they were added
+     */
+    public List<Customer> list() {
+        List<Customer> customers = new ArrayList<>(this.customerRecords.size());
+        for (Customer customer : this.customerRecords) {
+            customers.add(customer);
+        }
+        return customers;
     }
 
     /**
@@ -132,12 +198,6 @@ public class Restaurant {
     public void addCustomer(Scanner sc) {
         System.out.println("- Create Customer Record ---------------");
 
-        // If the restaurant is full, then the restaurant cannot add another customer
-        if (this.customerQty == MAX_CUSTOMERS) {
-            System.out.println("Sorry! The restaurant's customer record limit has been reached.");
-            return;
-        }
-
         // Ask for a customer code
         int customerCode = -1;
         boolean customerCodeIsValid = false;
@@ -148,7 +208,7 @@ public class Restaurant {
                 if (customerCode < 0) {
                     System.out.println("Please enter a valid positive integer code.");
                     continue;
-                } else if (this.contains(customerCode) != -1) {
+                } else if (this.find(customerCode) != null) {
                     System.out.println("That customer code already exists in the record. Please enter a new customer code.");
                     continue;
                 }
@@ -198,6 +258,7 @@ public class Restaurant {
                 loyaltyPoints = sc.nextInt();
                 if (loyaltyPoints < 0) {
                     System.out.println("Please enter a valid positive integer.");
+                    continue;
                 }
                 loyaltyPointsIsValid = true;
             } catch (InputMismatchException e) {
@@ -210,9 +271,8 @@ public class Restaurant {
             }
         } while (!loyaltyPointsIsValid);
 
-        // Create a new Customer, add to the array, then increment the quantity
-        Customer newCustomer = new Customer(firstName, lastName, customerCode, loyaltyPoints);
-        this.customerRecords[this.customerQty++] = newCustomer;
+        // Create a new Customer and add it to the record
+        Customer newCustomer = this.add(firstName, lastName, customerCode, loyaltyPoints);
 
         // Print success message and state
         System.out.printf("Customer %d was added to the record!\n", customerCode);
@@ -230,7 +290,7 @@ public class Restaurant {
         System.out.println("- Search Customer Record ---------------");
 
         // If the record is empty, then there is nothing to search.
-        if (this.customerQty == 0) {
+        if (this.size() == 0) {
             System.out.println("Sorry! There are no customer records to search.");
             return;
         }
@@ -254,13 +314,12 @@ public class Restaurant {
         } while (!customerCodeIsValid);
 
         // Search the record for the customer code and print its state if it exists
-        for (int i = 0; i < customerQty; i++) {
-            if (this.customerRecords[i].getCustomerCode() == customerCode) {
-                customerRecords[i].viewRecord();
-                return;
-            }
+        Customer customer = this.find(customerCode);
+        if (customer == null) {
+            System.out.println("Sorry! There is no existing customer record for that code.");
+            return;
         }
-        System.out.println("Sorry! There is no existing customer record for that code.");
+        customer.viewRecord();
     }
 
     /**
@@ -269,7 +328,7 @@ public class Restaurant {
     public void viewCustomerRecord() {
         System.out.println("- Customer Record ----------------------");
         // If the record is empty, then there is nothing to print.
-        if (this.customerQty == 0) {
+        if (this.size() == 0) {
             System.out.println("Sorry! There are no customer records to view.");
             return;
         }
@@ -290,13 +349,11 @@ public class Restaurant {
         System.out.printf("%-" + loyaltyPointsLength + "s\n", "Loyalty Points");
 
         // Print each customer record
-        for (int i = 0; i < this.customerQty; i++) {
-            if (this.customerRecords[i] != null) {
-                System.out.printf("%-" + customerIdLength + "d", this.customerRecords[i].getCustomerId());
-                System.out.printf("%-" + customerCodeLength + "d", this.customerRecords[i].getCustomerCode());
-                System.out.printf("%-" + nameLength + "s", this.customerRecords[i].getFirstName() + " " + this.customerRecords[i].getLastName());
-                System.out.printf("%-" + loyaltyPointsLength + "d\n", this.customerRecords[i].getLoyaltyPoints());
-            }
+        for (Customer customer : this.customerRecords) {
+            System.out.printf("%-" + customerIdLength + "d", customer.getCustomerId());
+            System.out.printf("%-" + customerCodeLength + "d", customer.getCustomerCode());
+            System.out.printf("%-" + nameLength + "s", customer.getFirstName() + " " + customer.getLastName());
+            System.out.printf("%-" + loyaltyPointsLength + "d\n", customer.getLoyaltyPoints());
         }
     }
 
@@ -309,7 +366,7 @@ public class Restaurant {
         System.out.println("- Delete Customer Record ---------------");
 
         // If the restaurant is empty, then there is no customer record to remove
-        if (this.customerQty == 0) {
+        if (this.size() == 0) {
             System.out.println("Sorry! There are no customer records to delete.");
             return;
         }
@@ -333,14 +390,14 @@ public class Restaurant {
         } while (!customerCodeIsValid);
 
         // Check if the record contains the customer with the customer code
-        int index = this.contains(customerCode);
-        if (index == -1) {
+        Customer customer = this.find(customerCode);
+        if (customer == null) {
             System.out.println("Sorry! There is no existing customer record for that code.");
             return;
         }
 
         // Print the state of the Customer
-        this.customerRecords[index].viewState();
+        customer.viewState();
 
         // Confirm the deletion
         String confirmation;
@@ -352,13 +409,7 @@ public class Restaurant {
         }
 
         System.out.printf("Deleted customer record %d.\n", customerCode);
-        // Iterate over the record starting from the element to delete
-        // Shift elements to the left to delete the record
-        for (int i = index; i < customerQty - 1; i++) {
-            this.customerRecords[i] = this.customerRecords[i + 1];
-        }
-
-        // Decrement the qty for the restaurant
-        this.customerQty--;
+        // Remove the record without moving the others
+        this.delete(customerCode);
     }
 }